@@ -0,0 +1,123 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+final class BenchmarkContext {
+    static final long OWNER_ID = 1L;
+    static final int BOOKERS = 50;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database) {
+        return start(database, WebApplicationType.NONE);
+    }
+
+    static ConfigurableApplicationContext start(String database, WebApplicationType webApplicationType,
+                                                String... properties) {
+        Stream<String> defaults = Stream.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "logging.level.org.springframework.transaction=WARN",
+                "logging.level.org.springframework.transaction.interceptor=WARN",
+                "logging.level.org.springframework.orm.jpa=WARN",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "logging.level.ru.practicum.shareit=WARN");
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(webApplicationType)
+                .run(Stream.concat(defaults, Stream.of(properties))
+                        .map(property -> "--" + property)
+                        .toArray(String[]::new));
+    }
+
+    static void seed(JdbcTemplate jdbcTemplate, int bookings) {
+        int items = Math.max(1, bookings / 10);
+        LocalDateTime now = LocalDateTime.now();
+
+        seedUsers(jdbcTemplate);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                        "VALUES (?, ?, ?, ?, ?)",
+                rangeOf(items), 1000, (ps, i) -> {
+                    ps.setLong(1, i + 1L);
+                    ps.setString(2, "item " + i);
+                    ps.setString(3, "description of item " + i);
+                    ps.setBoolean(4, i % 5 != 0);
+                    ps.setLong(5, OWNER_ID);
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                rangeOf(bookings), 1000, (ps, i) -> {
+                    LocalDateTime start = now.plusHours(i - bookings / 2);
+                    ps.setLong(1, i + 1L);
+                    ps.setTimestamp(2, Timestamp.valueOf(start));
+                    ps.setTimestamp(3, Timestamp.valueOf(start.plusHours(3)));
+                    ps.setLong(4, i % items + 1L);
+                    ps.setLong(5, i % BOOKERS + 2L);
+                    ps.setLong(6, OWNER_ID);
+                    ps.setString(7, i % 10 == 0 ? "WAITING" : i % 10 == 1 ? "REJECTED" : "APPROVED");
+                });
+        restartSequences(jdbcTemplate);
+    }
+
+    static void seedRequests(JdbcTemplate jdbcTemplate, int requests, int items) {
+        LocalDateTime now = LocalDateTime.now();
+
+        seedUsers(jdbcTemplate);
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                rangeOf(requests), 1000, (ps, i) -> {
+                    ps.setLong(1, i + 1L);
+                    ps.setString(2, "request " + i);
+                    ps.setLong(3, i % BOOKERS + 2L);
+                    ps.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(i)));
+                });
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                rangeOf(items), 1000, (ps, i) -> {
+                    ps.setLong(1, i + 1L);
+                    ps.setString(2, "item " + i);
+                    ps.setString(3, "description of item " + i);
+                    ps.setBoolean(4, true);
+                    ps.setLong(5, OWNER_ID);
+                    ps.setLong(6, i % requests + 1L);
+                });
+        restartSequences(jdbcTemplate);
+    }
+
+    private static void seedUsers(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                rangeOf(BOOKERS + 1), 1000, (ps, i) -> {
+                    ps.setLong(1, i + 1L);
+                    ps.setString(2, "user " + i);
+                    ps.setString(3, "user" + i + "@mail.ru");
+                });
+    }
+
+    private static void restartSequences(JdbcTemplate jdbcTemplate) {
+        for (String table : List.of("users", "requests", "items", "bookings", "comments")) {
+            Integer sequences = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES " +
+                    "WHERE SEQUENCE_NAME = ?", Integer.class, table.toUpperCase() + "_SEQ");
+            if (sequences == null || sequences == 0) {
+                continue;
+            }
+            Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+        }
+    }
+
+    private static List<Integer> rangeOf(int size) {
+        return IntStream.range(0, size).boxed().toList();
+    }
+}
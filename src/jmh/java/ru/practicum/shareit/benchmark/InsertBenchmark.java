@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.CommentWriteBehind;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsertBenchmark {
+    private static final long BOOKER_ID = 2L;
+    private static final int BATCH = 50;
+
+    @Param({"10000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private CommentWriteBehind commentWriteBehind;
+    private CommentRepository commentRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> itemIds;
+    private final AtomicLong slots = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private LocalDateTime origin;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("insert-" + bookings);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContext.seed(jdbcTemplate, bookings);
+        itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE is_available ORDER BY id", Long.class);
+        origin = LocalDateTime.now().plusYears(1);
+        bookingService = context.getBean(BookingService.class);
+        commentWriteBehind = context.getBean(CommentWriteBehind.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<BookingBatchResult> createBookings() {
+        List<BookingRequestDto> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            long slot = slots.getAndIncrement();
+            LocalDateTime start = origin.plusHours(slot / itemIds.size() * 2);
+            batch.add(new BookingRequestDto(start, start.plusHours(1),
+                    itemIds.get((int) (slot % itemIds.size()))));
+        }
+        return bookingService.createAll(batch, BOOKER_ID);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Comment> saveComments() {
+        return transactionTemplate.execute(tx -> {
+            Item item = entityManager.getReference(Item.class, itemIds.get(0));
+            User author = entityManager.getReference(User.class, BOOKER_ID);
+            List<Comment> batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                Comment comment = new Comment();
+                comment.setText("comment " + comments.getAndIncrement());
+                comment.setItem(item);
+                comment.setAuthor(author);
+                comment.setCreated(LocalDateTime.now());
+                batch.add(comment);
+            }
+            return commentRepository.saveAll(batch);
+        });
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Long ingestComments() {
+        long n = comments.getAndIncrement();
+        return commentWriteBehind.write("comment " + n, itemIds.get((int) (n % itemIds.size())), BOOKER_ID,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestBenchmark {
+    private static final long REQUESTOR_ID = 2L;
+
+    @Param({"10000"})
+    private int requests;
+
+    @Param({"100000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemRequestService itemRequestService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("requests-" + requests + "-" + items);
+        BenchmarkContext.seedRequests(context.getBean(JdbcTemplate.class), requests, items);
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemRequestWithAnswersDto> getOwn() {
+        return itemRequestService.getOwn(REQUESTOR_ID);
+    }
+
+    @Benchmark
+    public List<ItemRequestWithAnswersDto> getAllFirstPage() {
+        return itemRequestService.getAll(REQUESTOR_ID, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemRequestWithAnswersDto> getAllDeepPage() {
+        return itemRequestService.getAll(REQUESTOR_ID, 5000, 20);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class LoadTest {
+    private static final int CLIENTS = Integer.getInteger("clients", 2000);
+    private static final int BOOKINGS = Integer.getInteger("bookings", 10000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("warmup", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("duration", 30));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            results.add(run(virtualThreads));
+        }
+
+        System.out.printf("%n%d clients, %d bookings, %ds%n", CLIENTS, BOOKINGS, DURATION.toSeconds());
+        System.out.printf("%-10s %12s %10s %10s %10s %10s%n", "threads", "requests/s", "p50, ms", "p99, ms",
+                "rejected", "errors");
+        results.forEach(System.out::println);
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = BenchmarkContext.start("load-" + mode,
+                WebApplicationType.SERVLET,
+                "server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads)) {
+            BenchmarkContext.seed(context.getBean(JdbcTemplate.class), BOOKINGS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            try (HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build()) {
+                drive(client, port, WARMUP);
+                Result result = drive(client, port, DURATION);
+                return new Result(mode, result.latencies, result.rejected, result.errors, DURATION);
+            }
+        }
+    }
+
+    private static Result drive(HttpClient client, int port, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Client>> futures = new ArrayList<>(CLIENTS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(executor.submit(() -> new Client(client, port).runUntil(deadline)));
+            }
+        }
+
+        long[] latencies = new long[0];
+        long rejected = 0;
+        long errors = 0;
+        for (Future<Client> future : futures) {
+            Client finished = future.get();
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + finished.count);
+            System.arraycopy(finished.latencies, 0, latencies, offset, finished.count);
+            rejected += finished.rejected;
+            errors += finished.errors;
+        }
+        return new Result(null, latencies, rejected, errors, duration);
+    }
+
+    private static final class Client {
+        private final HttpClient client;
+        private final int port;
+        private long[] latencies = new long[256];
+        private int count;
+        private long rejected;
+        private long errors;
+
+        private Client(HttpClient client, int port) {
+            this.client = client;
+            this.port = port;
+        }
+
+        private Client runUntil(long deadline) {
+            while (System.nanoTime() < deadline) {
+                HttpRequest request = nextRequest();
+                long started = System.nanoTime();
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 503) {
+                        rejected++;
+                    } else if (status >= 400) {
+                        errors++;
+                    } else {
+                        record(System.nanoTime() - started);
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+            }
+            return this;
+        }
+
+        private HttpRequest nextRequest() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long booker = random.nextLong(BenchmarkContext.BOOKERS) + 2;
+            String path = switch (random.nextInt(3)) {
+                case 0 -> "/bookings/owner?state=ALL&size=10";
+                case 1 -> "/bookings?state=ALL&size=10";
+                default -> "/items/" + (random.nextLong(Math.max(1, BOOKINGS / 10)) + 1);
+            };
+            long userId = path.startsWith("/bookings/owner") ? BenchmarkContext.OWNER_ID : booker;
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("X-Sharer-User-Id", String.valueOf(userId))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    private record Result(String mode, long[] latencies, long rejected, long errors, Duration duration) {
+        @Override
+        public String toString() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return String.format("%-10s %12.1f %10.1f %10.1f %10d %10d", mode,
+                    sorted.length / (double) duration.toSeconds(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), rejected, errors);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private Booking booking;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+
+        User booker = new User();
+        booker.setId(2L);
+        booker.setName("booker");
+        booker.setEmail("booker@mail.ru");
+
+        item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Простая дрель");
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setOwnerId(owner.getId());
+        booking.setStatus(BookingStatus.APPROVED);
+    }
+
+    @Benchmark
+    public BookingResponseDto toBookingResponseDto() {
+        return BookingMapper.toBookingResponseDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+}
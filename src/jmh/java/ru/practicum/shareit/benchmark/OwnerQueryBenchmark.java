@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OwnerQueryBenchmark {
+    private static final String JOINED_QUERY = "SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = :ownerId AND (:status IS NULL OR b.status = :status) " +
+            "ORDER BY b.start DESC, b.id DESC";
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("owner-" + bookings + ";QUERY_CACHE_SIZE=0");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContext.seed(jdbcTemplate, bookings);
+        jdbcTemplate.execute("ANALYZE");
+        bookingRepository = context.getBean(BookingRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Booking> allJoinedThroughItems() {
+        return joined(null);
+    }
+
+    @Benchmark
+    public List<Booking> allByOwnerColumn() {
+        return bookingRepository.findByOwnerIdOrderByStartDescIdDesc(BenchmarkContext.OWNER_ID,
+                ScrollPosition.offset(), Limit.of(PAGE_SIZE)).getContent();
+    }
+
+    @Benchmark
+    public List<Booking> waitingJoinedThroughItems() {
+        return joined(BookingStatus.WAITING);
+    }
+
+    @Benchmark
+    public List<Booking> waitingByOwnerColumn() {
+        return bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(BenchmarkContext.OWNER_ID,
+                BookingStatus.WAITING, ScrollPosition.offset(), Limit.of(PAGE_SIZE)).getContent();
+    }
+
+    private List<Booking> joined(BookingStatus status) {
+        return readOnly.execute(tx -> entityManager.createQuery(JOINED_QUERY, Booking.class)
+                .setParameter("ownerId", BenchmarkContext.OWNER_ID)
+                .setParameter("status", status)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.config.JacksonConfig;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final OutputStream OUT = OutputStream.nullOutputStream();
+
+    @Param({"1000"})
+    private int size;
+
+    private ObjectMapper reflective;
+    private ObjectMapper registered;
+    private List<Booking> bookings;
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        reflective = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        JacksonConfig config = new JacksonConfig();
+        registered = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .addModule(config.blackbirdModule())
+                .addModule(config.responseSerializersModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.now();
+        for (long i = 1; i <= size; i++) {
+            User booker = new User();
+            booker.setId(i + 1);
+            booker.setName("booker " + i);
+            booker.setEmail("booker" + i + "@mail.ru");
+
+            Item item = new Item();
+            item.setId(i);
+            item.setName("Дрель " + i);
+            item.setDescription("Простая дрель " + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            items.add(item);
+
+            Booking booking = new Booking();
+            booking.setId(i);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i + 1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(owner.getId());
+            booking.setStatus(BookingStatus.APPROVED);
+            bookings.add(booking);
+        }
+    }
+
+    @Benchmark
+    public void bookingsReflective() throws IOException {
+        reflective.writeValue(OUT, bookings.stream().map(BookingMapper::toBookingResponseDto).toList());
+    }
+
+    @Benchmark
+    public void bookingsRegistered() throws IOException {
+        registered.writeValue(OUT, bookings.stream().map(BookingMapper::toBookingResponseDto).toList());
+    }
+
+    @Benchmark
+    public void itemsReflective() throws IOException {
+        reflective.writeValue(OUT, items.stream().map(ItemMapper::toItemDto).toList());
+    }
+
+    @Benchmark
+    public void itemsRegistered() throws IOException {
+        registered.writeValue(OUT, items.stream().map(ItemMapper::toItemDto).toList());
+    }
+}
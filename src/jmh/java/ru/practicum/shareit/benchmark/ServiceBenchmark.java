@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+
+    @State(Scope.Thread)
+    public static class BookingState {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+        private String state;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("service-" + bookings);
+        BenchmarkContext.seed(context.getBean(JdbcTemplate.class), bookings);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookings> getByOwner() {
+        return itemService.getByOwner(BenchmarkContext.OWNER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.search("item 4", 0, 10);
+    }
+
+    @Benchmark
+    public BookingPage getBookingsByOwner(BookingState bookingState) {
+        return bookingService.getBookingsByOwner(BenchmarkContext.OWNER_ID, bookingState.state, 0, 10, null);
+    }
+}
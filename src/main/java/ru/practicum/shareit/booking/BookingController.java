@@ -1,19 +1,38 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public BookingResponseDto create(@RequestBody BookingRequestDto bookingRequestDto,
@@ -31,6 +50,28 @@ public class BookingController {
         return bookingService.updateStatus(bookingId, approved, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createAll(@RequestBody List<BookingRequestDto> bookingRequestDtos,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /bookings/batch - пакетное создание {} бронирований, пользователь: {}",
+                bookingRequestDtos.size(), userId);
+        return bookingService.createAll(bookingRequestDtos, userId);
+    }
+
+    @PatchMapping("/owner/batch")
+    public List<BookingBatchResult> updateStatuses(@RequestBody List<BookingDecisionDto> decisions,
+                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("PATCH /bookings/owner/batch - пакетное обновление {} статусов, пользователь: {}",
+                decisions.size(), userId);
+        return bookingService.updateStatuses(decisions, userId);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/events - подписка на события бронирований, пользователь: {}", userId);
+        return bookingService.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getById(@PathVariable Long bookingId,
                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -39,16 +80,85 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                        @RequestParam(defaultValue = "ALL") String state) {
-        log.info("GET /bookings?state={} - получение бронирований пользователя: {}", state, userId);
-        return bookingService.getBookingsByBooker(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByBooker(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        log.info("GET /bookings?state={}&from={}&size={}&cursor={} - получение бронирований пользователя: {}",
+                state, from, size, cursor, userId);
+        if (request.checkNotModified(bookingService.getBookerTag(userId, state, from, size, cursor))) {
+            return null;
+        }
+        return toResponse(bookingService.getBookingsByBooker(userId, state, from, size, cursor));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookingsByBooker(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestParam(defaultValue = "ALL") String state,
+                                       HttpServletResponse response) throws IOException {
+        log.info("GET /bookings?state={} (ndjson) - выгрузка бронирований пользователя: {}", state, userId);
+        stream(response, consumer -> bookingService.streamBookingsByBooker(userId, state, consumer));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(defaultValue = "ALL") String state) {
-        log.info("GET /bookings/owner?state={} - получение бронирований владельца: {}", state, userId);
-        return bookingService.getBookingsByOwner(userId, state);
+    public ResponseEntity<List<BookingResponseDto>> getBookingsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        log.info("GET /bookings/owner?state={}&from={}&size={}&cursor={} - получение бронирований владельца: {}",
+                state, from, size, cursor, userId);
+        if (request.checkNotModified(bookingService.getOwnerTag(userId, state, from, size, cursor))) {
+            return null;
+        }
+        return toResponse(bookingService.getBookingsByOwner(userId, state, from, size, cursor));
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                      @RequestParam(defaultValue = "ALL") String state,
+                                      HttpServletResponse response) throws IOException {
+        log.info("GET /bookings/owner?state={} (ndjson) - выгрузка бронирований владельца: {}", state, userId);
+        stream(response, consumer -> bookingService.streamBookingsByOwner(userId, state, consumer));
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(page.getBookings());
+    }
+
+    private void stream(HttpServletResponse response,
+                        Consumer<Consumer<BookingResponseDto>> bookings) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        try {
+            bookings.accept(booking -> writeLine(out, booking));
+        } catch (UncheckedIOException e) {
+            log.debug("Клиент прервал выгрузку бронирований: {}", e.getMessage());
+        }
+    }
+
+    private void writeLine(OutputStream out, BookingResponseDto booking) {
+        byte[] line;
+        try {
+            line = objectMapper.writeValueAsBytes(booking);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
\ No newline at end of file
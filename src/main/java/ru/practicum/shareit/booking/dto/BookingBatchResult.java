@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResult {
+    private Long bookingId;
+    private Integer status;
+    private BookingResponseDto booking;
+    private String error;
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class BookingResponseDtoSerializer extends StdSerializer<BookingResponseDto> {
+    private static final int DATE_TIME_LENGTH = 29;
+
+    public BookingResponseDtoSerializer() {
+        super(BookingResponseDto.class);
+    }
+
+    @Override
+    public void serialize(BookingResponseDto booking, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        char[] buffer = new char[DATE_TIME_LENGTH];
+        gen.writeStartObject();
+        writeNumber(gen, "id", booking.getId());
+        writeDateTime(gen, "start", booking.getStart(), buffer);
+        writeDateTime(gen, "end", booking.getEnd(), buffer);
+        if (booking.getStatus() == null) {
+            gen.writeNullField("status");
+        } else {
+            gen.writeStringField("status", booking.getStatus().name());
+        }
+
+        BookerDto booker = booking.getBooker();
+        if (booker == null) {
+            gen.writeNullField("booker");
+        } else {
+            gen.writeObjectFieldStart("booker");
+            writeNumber(gen, "id", booker.getId());
+            gen.writeStringField("name", booker.getName());
+            gen.writeStringField("email", booker.getEmail());
+            gen.writeEndObject();
+        }
+
+        ItemBookingDto item = booking.getItem();
+        if (item == null) {
+            gen.writeNullField("item");
+        } else {
+            gen.writeObjectFieldStart("item");
+            writeNumber(gen, "id", item.getId());
+            gen.writeStringField("name", item.getName());
+            gen.writeStringField("description", item.getDescription());
+            if (item.getAvailable() == null) {
+                gen.writeNullField("available");
+            } else {
+                gen.writeBooleanField("available", item.getAvailable());
+            }
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeDateTime(JsonGenerator gen, String name, LocalDateTime value, char[] buffer)
+            throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            gen.writeStringField(name, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            return;
+        }
+
+        int pos = writeDigits(buffer, 0, value.getYear(), 4);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, value.getMonthValue(), 2);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, value.getDayOfMonth(), 2);
+        buffer[pos++] = 'T';
+        pos = writeDigits(buffer, pos, value.getHour(), 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, value.getMinute(), 2);
+        buffer[pos++] = ':';
+        pos = writeDigits(buffer, pos, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano > 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buffer[pos++] = '.';
+            pos = writeDigits(buffer, pos, nano, width);
+        }
+        gen.writeFieldName(name);
+        gen.writeString(buffer, 0, pos);
+    }
+
+    private static int writeDigits(char[] buffer, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
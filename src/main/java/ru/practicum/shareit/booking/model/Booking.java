@@ -16,7 +16,8 @@ import java.util.Objects;
 @ToString
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -25,20 +26,37 @@ public class Booking {
     @Column(name = "end_date", nullable = false)
     private LocalDateTime end;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "item_id")
     @ToString.Exclude
     private Item item;
 
-    @ManyToOne(fetch = FetchType.LAZY)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "booker_id")
     @ToString.Exclude
     private User booker;
 
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BookingStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingPhase phase;
+
+    @Version
+    private Long version;
+
+    @PrePersist
+    void initPhase() {
+        if (phase == null) {
+            phase = BookingPhase.at(start, end, LocalDateTime.now());
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingPhase {
+    FUTURE, CURRENT, PAST;
+
+    public static BookingPhase at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
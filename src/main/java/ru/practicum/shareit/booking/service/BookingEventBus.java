@@ -0,0 +1,217 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class BookingEventBus {
+    private static final Event HEARTBEAT = new Event(null, null);
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService dispatcher;
+    private final ObjectMapper objectMapper;
+    private final Counter dropped;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    @Autowired
+    public BookingEventBus(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.events.buffer-size}") int bufferSize,
+                           @Value("${shareit.events.timeout}") Duration timeout) {
+        this(objectMapper, meterRegistry, bufferSize, timeout, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public BookingEventBus(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           int bufferSize,
+                           Duration timeout,
+                           ExecutorService dispatcher) {
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.dropped = Counter.builder("shareit.events.dropped")
+                .description("Подписчики, отключённые из-за переполнения буфера событий")
+                .register(meterRegistry);
+        Gauge.builder("shareit.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Открытые подписки на события")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.computeIfAbsent(userId, ignored -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        subscriber.enqueue(HEARTBEAT);
+        return emitter;
+    }
+
+    public void publish(String name, Object payload, Collection<Long> userIds) {
+        Set<Long> recipients = new LinkedHashSet<>(userIds);
+        afterCommit(() -> {
+            Event event = null;
+            for (Long userId : recipients) {
+                Set<Subscriber> userSubscribers = subscribers.get(userId);
+                if (userSubscribers == null) {
+                    continue;
+                }
+                if (event == null) {
+                    event = new Event(name, toJson(payload));
+                }
+                for (Subscriber subscriber : userSubscribers) {
+                    subscriber.enqueue(event);
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(
+                subscriber -> subscriber.enqueue(HEARTBEAT)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(Subscriber::close));
+        dispatcher.shutdown();
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Event(String name, String data) {
+        private SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Event> buffer) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        private void enqueue(Event event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(event) && remove(this)) {
+                log.debug("Подписчик пользователя {} не успевает получать события и отключён", userId);
+                dropped.increment();
+            }
+            schedule();
+        }
+
+        private void close() {
+            remove(this);
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Event event;
+                while (!closed.get() && (event = buffer.poll()) != null) {
+                    try {
+                        emitter.send(event.toSse());
+                    } catch (IOException | IllegalStateException e) {
+                        remove(this);
+                        if (completed.compareAndSet(false, true)) {
+                            emitter.completeWithError(e);
+                        }
+                    }
+                }
+                draining.set(false);
+                if (closed.get()) {
+                    buffer.clear();
+                    if (completed.compareAndSet(false, true)) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
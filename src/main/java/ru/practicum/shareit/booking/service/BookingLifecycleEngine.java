@@ -0,0 +1,248 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingQueryCache;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Component
+public class BookingLifecycleEngine {
+    private static final String BOOKINGS_EVENT = "bookings";
+    private static final String STARTING_SQL = "SELECT id, start_date FROM bookings " +
+            "WHERE phase = 'FUTURE' AND start_date <= ? ORDER BY start_date LIMIT ?";
+    private static final String ENDING_SQL = "SELECT id, end_date FROM bookings " +
+            "WHERE phase IN ('FUTURE', 'CURRENT') AND end_date <= ? ORDER BY end_date LIMIT ?";
+    private static final String EXPIRING_SQL = "SELECT id, start_date FROM bookings " +
+            "WHERE status = 'WAITING' AND start_date <= ? ORDER BY start_date LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingQueryCache bookingQueryCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingEventBus bookingEventBus;
+    private final Map<Transition, Counter> transitions = new EnumMap<>(Transition.class);
+    private final List<Set<Timer>> wheel;
+    private final LocalDateTime origin = LocalDateTime.now();
+    private final long tickMillis;
+    private final Duration lookahead;
+    private final Duration waitingTimeout;
+    private final int loadLimit;
+    private final int batchSize;
+    private long currentTick;
+
+    public BookingLifecycleEngine(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  BookingRepository bookingRepository,
+                                  BookingQueryCache bookingQueryCache,
+                                  BookingIntervalIndex bookingIntervalIndex,
+                                  BookingEventBus bookingEventBus,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit.booking.lifecycle.tick}") Duration tick,
+                                  @Value("${shareit.booking.lifecycle.lookahead}") Duration lookahead,
+                                  @Value("${shareit.booking.lifecycle.waiting-timeout}") Duration waitingTimeout,
+                                  @Value("${shareit.booking.lifecycle.load-limit}") int loadLimit,
+                                  @Value("${shareit.booking.lifecycle.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingRepository = bookingRepository;
+        this.bookingQueryCache = bookingQueryCache;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingEventBus = bookingEventBus;
+        this.tickMillis = tick.toMillis();
+        this.lookahead = lookahead;
+        this.waitingTimeout = waitingTimeout;
+        this.loadLimit = loadLimit;
+        this.batchSize = batchSize;
+
+        int slots = (int) (lookahead.toMillis() / tickMillis) + 1;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new LinkedHashSet<>());
+        }
+        for (Transition transition : Transition.values()) {
+            transitions.put(transition, Counter.builder("shareit.booking.lifecycle.transitions")
+                    .description("Переходы бронирований, выполненные по расписанию")
+                    .tag("transition", transition.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void track(Booking booking) {
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean waiting = booking.getStatus() == BookingStatus.WAITING;
+        afterCommit(() -> {
+            schedule(bookingId, Transition.START, start);
+            schedule(bookingId, Transition.END, end);
+            if (waiting) {
+                schedule(bookingId, Transition.EXPIRE, start.plus(waitingTimeout));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.load-interval}")
+    public void load() {
+        Timestamp horizon = Timestamp.valueOf(LocalDateTime.now().plus(lookahead));
+        jdbcTemplate.query(STARTING_SQL, rs -> {
+            schedule(rs.getLong(1), Transition.START, rs.getTimestamp(2).toLocalDateTime());
+        }, horizon, loadLimit);
+        jdbcTemplate.query(ENDING_SQL, rs -> {
+            schedule(rs.getLong(1), Transition.END, rs.getTimestamp(2).toLocalDateTime());
+        }, horizon, loadLimit);
+        jdbcTemplate.query(EXPIRING_SQL, rs -> {
+            schedule(rs.getLong(1), Transition.EXPIRE, rs.getTimestamp(2).toLocalDateTime().plus(waitingTimeout));
+        }, Timestamp.valueOf(horizon.toLocalDateTime().minus(waitingTimeout)), loadLimit);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.tick}")
+    public void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Transition, Set<Long>> due = drainUntil(Math.floorDiv(millisOf(now), tickMillis));
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(due, now));
+        } catch (RuntimeException e) {
+            log.warn("Не удалось выполнить переходы бронирований, повтор после следующей загрузки", e);
+        }
+    }
+
+    private void apply(Map<Transition, Set<Long>> due, LocalDateTime now) {
+        Set<Long> changed = new LinkedHashSet<>();
+        Set<Long> expired = new LinkedHashSet<>();
+        due.forEach((transition, ids) -> {
+            Timestamp threshold = Timestamp.valueOf(
+                    transition == Transition.EXPIRE ? now.minus(waitingTimeout) : now);
+            List<Long> batch = List.copyOf(ids);
+            int[][] counts = jdbcTemplate.batchUpdate(transition.sql, batch, batchSize, (ps, id) -> {
+                ps.setLong(1, id);
+                ps.setTimestamp(2, threshold);
+            });
+            int applied = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (counts[i / batchSize][i % batchSize] > 0) {
+                    changed.add(batch.get(i));
+                    if (transition == Transition.EXPIRE) {
+                        expired.add(batch.get(i));
+                    }
+                    applied++;
+                }
+            }
+            transitions.get(transition).increment(applied);
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<BookingResponseDto>> events = new HashMap<>();
+        List<Long> ids = List.copyOf(changed);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            for (Booking booking : bookingRepository.findByIdIn(chunk)) {
+                bookingQueryCache.invalidate(booking.getBooker().getId(), booking.getOwnerId());
+                if (expired.contains(booking.getId())) {
+                    bookingIntervalIndex.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+                }
+                BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
+                events.computeIfAbsent(booking.getBooker().getId(), ignored -> new ArrayList<>())
+                        .add(bookingResponseDto);
+                events.computeIfAbsent(booking.getOwnerId(), ignored -> new ArrayList<>())
+                        .add(bookingResponseDto);
+            }
+        }
+        events.forEach((userId, bookings) -> bookingEventBus.publish(BOOKINGS_EVENT, bookings, List.of(userId)));
+        log.debug("Выполнено переходов бронирований: {}", changed.size());
+    }
+
+    private synchronized void schedule(Long bookingId, Transition transition, LocalDateTime instant) {
+        long millis = millisOf(instant);
+        long tick = transition == Transition.END
+                ? Math.floorDiv(millis, tickMillis) + 1
+                : Math.ceilDiv(millis, tickMillis);
+        tick = Math.max(tick, currentTick + 1);
+        if (tick - currentTick >= wheel.size()) {
+            return;
+        }
+        wheel.get((int) Math.floorMod(tick, wheel.size())).add(new Timer(bookingId, transition));
+    }
+
+    private synchronized Map<Transition, Set<Long>> drainUntil(long tick) {
+        Map<Transition, Set<Long>> due = new EnumMap<>(Transition.class);
+        if (tick <= currentTick) {
+            return due;
+        }
+        long steps = Math.min(tick - currentTick, wheel.size());
+        for (long i = 1; i <= steps; i++) {
+            Set<Timer> slot = wheel.get((int) Math.floorMod(currentTick + i, wheel.size()));
+            slot.forEach(timer -> due.computeIfAbsent(timer.transition(), ignored -> new LinkedHashSet<>())
+                    .add(timer.bookingId()));
+            slot.clear();
+        }
+        currentTick = tick;
+        return due;
+    }
+
+    private long millisOf(LocalDateTime instant) {
+        return Duration.between(origin, instant).toMillis();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private enum Transition {
+        START("UPDATE bookings SET phase = 'CURRENT', version = version + 1 " +
+                "WHERE id = ? AND phase = 'FUTURE' AND start_date <= ?"),
+        END("UPDATE bookings SET phase = 'PAST', version = version + 1 " +
+                "WHERE id = ? AND phase IN ('FUTURE', 'CURRENT') AND end_date < ?"),
+        EXPIRE("UPDATE bookings SET status = 'CANCELED', version = version + 1 " +
+                "WHERE id = ? AND status = 'WAITING' AND start_date <= ?");
+
+        private final String sql;
+
+        Transition(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private record Timer(Long bookingId, Transition transition) {
+    }
+}
@@ -1,17 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto create(BookingRequestDto bookingRequestDto, Long bookerId);
 
     BookingResponseDto updateStatus(Long bookingId, Boolean approved, Long ownerId);
 
+    List<BookingBatchResult> createAll(List<BookingRequestDto> bookingRequestDtos, Long bookerId);
+
+    List<BookingBatchResult> updateStatuses(List<BookingDecisionDto> decisions, Long ownerId);
+
+    SseEmitter subscribe(Long userId);
+
     BookingResponseDto getById(Long bookingId, Long userId);
 
-    List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state);
+    BookingPage getBookingsByBooker(Long bookerId, String state, Integer from, Integer size, String cursor);
+
+    BookingPage getBookingsByOwner(Long ownerId, String state, Integer from, Integer size, String cursor);
+
+    String getBookerTag(Long bookerId, String state, Integer from, Integer size, String cursor);
+
+    String getOwnerTag(Long ownerId, String state, Integer from, Integer size, String cursor);
+
+    void streamBookingsByBooker(Long bookerId, String state, Consumer<BookingResponseDto> consumer);
 
-    List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state);
+    void streamBookingsByOwner(Long ownerId, String state, Consumer<BookingResponseDto> consumer);
 }
\ No newline at end of file
@@ -1,14 +1,35 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingCursor;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
 import ru.practicum.shareit.booking.storage.BookingMapper;
+import ru.practicum.shareit.booking.storage.BookingQueryCache;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.PrimaryReads;
+import ru.practicum.shareit.config.ResponseTags;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -18,16 +39,36 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final String BOOKING_EVENT = "booking";
+    private static final String BOOKINGS_EVENT = "bookings";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingQueryCache bookingQueryCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ResponseTags responseTags;
+    private final BookingEventBus bookingEventBus;
+    private final BookingLifecycleEngine bookingLifecycleEngine;
 
     @Override
     @Transactional
@@ -35,20 +76,26 @@ public class BookingServiceImpl implements BookingService {
         User booker = userRepository.findById(bookerId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + bookerId + " не найден."));
 
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
+        Item item = itemRepository.findLockedById(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + bookingRequestDto.getItemId() + " не найдена."));
 
         validateBookingCreation(bookingRequestDto, item, bookerId);
+        bookingIntervalIndex.reserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
 
         Booking booking = new Booking();
         booking.setStart(bookingRequestDto.getStart());
         booking.setEnd(bookingRequestDto.getEnd());
         booking.setItem(item);
         booking.setBooker(booker);
+        booking.setOwnerId(item.getOwner().getId());
         booking.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingResponseDto(savedBooking);
+        bookingQueryCache.invalidate(bookerId, item.getOwner().getId());
+        bookingLifecycleEngine.track(savedBooking);
+        BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(savedBooking);
+        publish(bookingResponseDto, savedBooking);
+        return bookingResponseDto;
     }
 
     @Override
@@ -57,17 +104,136 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено."));
 
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+        if (!booking.getOwnerId().equals(ownerId)) {
             throw new ForbiddenException("Только владелец вещи может подтверждать бронирование.");
         }
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (booking.getStatus() != BookingStatus.WAITING
+                || bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
             throw new ValidationException("Статус бронирования уже изменен.");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingResponseDto(updatedBooking);
+        booking.setStatus(status);
+        bookingQueryCache.invalidate(booking.getBooker().getId(), ownerId);
+        if (!approved) {
+            bookingIntervalIndex.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
+        BookingResponseDto bookingResponseDto = BookingMapper.toBookingResponseDto(booking);
+        publish(bookingResponseDto, booking);
+        return bookingResponseDto;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResult> createAll(List<BookingRequestDto> bookingRequestDtos, Long bookerId) {
+        validateBatchSize(bookingRequestDtos);
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + bookerId + " не найден."));
+
+        List<Long> itemIds = bookingRequestDtos.stream()
+                .map(BookingRequestDto::getItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Item> items = itemRepository.findLockedByIdInOrderById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingBatchResult> results = new ArrayList<>();
+        for (BookingRequestDto bookingRequestDto : bookingRequestDtos) {
+            try {
+                Item item = items.get(bookingRequestDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException("Вещь с id=" + bookingRequestDto.getItemId() + " не найдена.");
+                }
+                validateBookingCreation(bookingRequestDto, item, bookerId);
+                bookingIntervalIndex.reserve(item.getId(), bookingRequestDto.getStart(), bookingRequestDto.getEnd());
+
+                Booking booking = new Booking();
+                booking.setStart(bookingRequestDto.getStart());
+                booking.setEnd(bookingRequestDto.getEnd());
+                booking.setItem(item);
+                booking.setBooker(booker);
+                booking.setOwnerId(item.getOwner().getId());
+                booking.setStatus(BookingStatus.WAITING);
+                bookings.add(booking);
+                bookingQueryCache.invalidate(bookerId, item.getOwner().getId());
+                results.add(null);
+            } catch (NotFoundException | ValidationException | ConflictException e) {
+                results.add(toFailure(null, e));
+            }
+        }
+
+        Iterator<Booking> saved = bookingRepository.saveAll(bookings).iterator();
+        Map<Long, List<BookingResponseDto>> events = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Booking booking = saved.next();
+                bookingLifecycleEngine.track(booking);
+                BookingBatchResult result = toSuccess(booking);
+                results.set(i, result);
+                collectEvent(events, booking, result.getBooking());
+            }
+        }
+        publishAll(events);
+        return results;
+    }
+
+    @Override
+    @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3)
+    public List<BookingBatchResult> updateStatuses(List<BookingDecisionDto> decisions, Long ownerId) {
+        validateBatchSize(decisions);
+        List<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Booking> bookings = bookingRepository.findByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingBatchResult> results = new ArrayList<>();
+        Map<Long, List<BookingResponseDto>> events = new HashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            try {
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    throw new NotFoundException("Бронирование с id=" + bookingId + " не найдено.");
+                }
+                if (!booking.getOwnerId().equals(ownerId)) {
+                    throw new ForbiddenException("Только владелец вещи может подтверждать бронирование.");
+                }
+                if (booking.getStatus() != BookingStatus.WAITING) {
+                    throw new ValidationException("Статус бронирования уже изменен.");
+                }
+                if (decision.getApproved() == null) {
+                    throw new ValidationException("Не указано решение по бронированию с id=" + bookingId + ".");
+                }
+
+                booking.setStatus(decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                bookingQueryCache.invalidate(booking.getBooker().getId(), ownerId);
+                if (!decision.getApproved()) {
+                    bookingIntervalIndex.release(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+                }
+                BookingBatchResult result = toSuccess(booking);
+                results.add(result);
+                collectEvent(events, booking, result.getBooking());
+            } catch (NotFoundException | ForbiddenException | ValidationException e) {
+                results.add(toFailure(bookingId, e));
+            }
+        }
+        publishAll(events);
+        return results;
+    }
+
+    @Override
+    public SseEmitter subscribe(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден.");
+        }
+        return bookingEventBus.subscribe(userId);
     }
 
     @Override
@@ -76,7 +242,7 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("Бронирование с id=" + bookingId + " не найдено."));
 
         if (!booking.getBooker().getId().equals(userId) &&
-                !booking.getItem().getOwner().getId().equals(userId)) {
+                !booking.getOwnerId().equals(userId)) {
             throw new NotFoundException("Просмотр бронирования доступен только автору или владельцу вещи.");
         }
 
@@ -84,77 +250,215 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getBookingsByBooker(Long bookerId, String state) {
-        if (!userRepository.existsById(bookerId)) {
+    public BookingPage getBookingsByBooker(Long bookerId, String state, Integer from, Integer size, String cursor) {
+        return PrimaryReads.call(() -> {
+            if (userRepository.findById(bookerId).isEmpty()) {
+                throw new NotFoundException("Пользователь с id=" + bookerId + " не найден.");
+            }
+            return bookingQueryCache.get(bookerId, BookingQueryCache.Role.BOOKER, pageKey(state, from, size, cursor),
+                    () -> toBookingPage(bookerQuery(bookerId, state), from, size, cursor));
+        });
+    }
+
+    @Override
+    public BookingPage getBookingsByOwner(Long ownerId, String state, Integer from, Integer size, String cursor) {
+        return PrimaryReads.call(() -> {
+            if (userRepository.findById(ownerId).isEmpty()) {
+                throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
+            }
+            return bookingQueryCache.get(ownerId, BookingQueryCache.Role.OWNER, pageKey(state, from, size, cursor),
+                    () -> toBookingPage(ownerQuery(ownerId, state), from, size, cursor));
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamBookingsByBooker(Long bookerId, String state, Consumer<BookingResponseDto> consumer) {
+        if (userRepository.findById(bookerId).isEmpty()) {
             throw new NotFoundException("Пользователь с id=" + bookerId + " не найден.");
         }
+        streamBookings(bookerQuery(bookerId, state), consumer);
+    }
 
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamBookingsByOwner(Long ownerId, String state, Consumer<BookingResponseDto> consumer) {
+        if (userRepository.findById(ownerId).isEmpty()) {
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
+        }
+        streamBookings(ownerQuery(ownerId, state), consumer);
+    }
+
+    @Override
+    public String getBookerTag(Long bookerId, String state, Integer from, Integer size, String cursor) {
+        return responseTags.tag("bookings", bookerId,
+                bookingQueryCache.generation(bookerId, BookingQueryCache.Role.BOOKER),
+                state.toUpperCase(), from, size, cursor);
+    }
 
+    @Override
+    public String getOwnerTag(Long ownerId, String state, Integer from, Integer size, String cursor) {
+        return responseTags.tag("owner-bookings", ownerId,
+                bookingQueryCache.generation(ownerId, BookingQueryCache.Role.OWNER),
+                state.toUpperCase(), from, size, cursor);
+    }
+
+    private BiFunction<ScrollPosition, Limit, Window<Booking>> bookerQuery(Long bookerId, String state) {
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(bookerId);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdOrderByStartDescIdDesc(
+                        bookerId, position, limit);
             case "CURRENT":
-                bookings = bookingRepository.findCurrentByBookerId(bookerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(
+                        bookerId, BookingPhase.CURRENT, position, limit);
             case "PAST":
-                bookings = bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(
+                        bookerId, BookingPhase.PAST, position, limit);
             case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(
+                        bookerId, BookingPhase.FUTURE, position, limit);
             case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                        bookerId, BookingStatus.WAITING, position, limit);
             case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.REJECTED);
-                break;
+                return (position, limit) -> bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(
+                        bookerId, BookingStatus.REJECTED, position, limit);
             default:
                 throw new ValidationException("Unknown state: " + state);
         }
-
-        return bookings.stream()
-                .map(BookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
     }
 
-    @Override
-    public List<BookingResponseDto> getBookingsByOwner(Long ownerId, String state) {
-        if (!userRepository.existsById(ownerId)) {
-            throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
-        }
-
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-
+    private BiFunction<ScrollPosition, Limit, Window<Booking>> ownerQuery(Long ownerId, String state) {
         switch (state.toUpperCase()) {
             case "ALL":
-                bookings = bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdOrderByStartDescIdDesc(
+                        ownerId, position, limit);
             case "CURRENT":
-                bookings = bookingRepository.findCurrentByOwnerId(ownerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(
+                        ownerId, BookingPhase.CURRENT, position, limit);
             case "PAST":
-                bookings = bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(
+                        ownerId, BookingPhase.PAST, position, limit);
             case "FUTURE":
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(
+                        ownerId, BookingPhase.FUTURE, position, limit);
             case "WAITING":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, BookingStatus.WAITING, position, limit);
             case "REJECTED":
-                bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-                break;
+                return (position, limit) -> bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(
+                        ownerId, BookingStatus.REJECTED, position, limit);
             default:
                 throw new ValidationException("Unknown state: " + state);
         }
+    }
+
+    private BookingQueryCache.PageKey pageKey(String state, Integer from, Integer size, String cursor) {
+        return new BookingQueryCache.PageKey(state.toUpperCase(), from, size, cursor);
+    }
+
+    private BookingPage toBookingPage(BiFunction<ScrollPosition, Limit, Window<Booking>> query,
+                                      Integer from, Integer size, String cursor) {
+        if (from < 0 || size != null && size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
+
+        ScrollPosition position;
+        if (cursor != null) {
+            position = BookingCursor.decode(cursor);
+        } else if (from > 0) {
+            position = ScrollPosition.offset(from - 1);
+        } else {
+            position = ScrollPosition.keyset();
+        }
+
+        if (size == null) {
+            List<BookingResponseDto> bookings = new ArrayList<>();
+            Window<Booking> window;
+            do {
+                window = query.apply(position, Limit.of(STREAM_CHUNK_SIZE));
+                window.forEach(booking -> bookings.add(BookingMapper.toBookingResponseDto(booking)));
+                if (!window.isEmpty()) {
+                    position = window.positionAt(window.size() - 1);
+                }
+            } while (window.hasNext());
+            return new BookingPage(bookings, null);
+        }
 
-        return bookings.stream()
+        Window<Booking> window = query.apply(position, Limit.of(size));
+        List<BookingResponseDto> bookings = window.stream()
                 .map(BookingMapper::toBookingResponseDto)
                 .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? BookingCursor.encode(window.getContent().get(window.size() - 1))
+                : null;
+        return new BookingPage(bookings, nextCursor);
+    }
+
+    private void streamBookings(BiFunction<ScrollPosition, Limit, Window<Booking>> query,
+                                Consumer<BookingResponseDto> consumer) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        StreamChunk chunk = new StreamChunk(List.of(), ScrollPosition.keyset(), true);
+        do {
+            ScrollPosition position = chunk.next();
+            chunk = readOnly.execute(status -> {
+                Window<Booking> window = query.apply(position, Limit.of(STREAM_CHUNK_SIZE));
+                List<BookingResponseDto> bookings = window.stream()
+                        .map(BookingMapper::toBookingResponseDto)
+                        .toList();
+                return new StreamChunk(bookings,
+                        window.isEmpty() ? position : window.positionAt(window.size() - 1), window.hasNext());
+            });
+            chunk.bookings().forEach(consumer);
+        } while (chunk.hasNext());
+    }
+
+    private void validateBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty() || batch.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Размер пакета должен быть от 1 до " + MAX_BATCH_SIZE + ".");
+        }
+    }
+
+    private BookingBatchResult toSuccess(Booking booking) {
+        return BookingBatchResult.builder()
+                .bookingId(booking.getId())
+                .status(HttpStatus.OK.value())
+                .booking(BookingMapper.toBookingResponseDto(booking))
+                .build();
+    }
+
+    private void publish(BookingResponseDto bookingResponseDto, Booking booking) {
+        bookingEventBus.publish(BOOKING_EVENT, bookingResponseDto,
+                List.of(booking.getBooker().getId(), booking.getOwnerId()));
+    }
+
+    private void collectEvent(Map<Long, List<BookingResponseDto>> events, Booking booking,
+                              BookingResponseDto bookingResponseDto) {
+        events.computeIfAbsent(booking.getBooker().getId(), ignored -> new ArrayList<>()).add(bookingResponseDto);
+        events.computeIfAbsent(booking.getOwnerId(), ignored -> new ArrayList<>()).add(bookingResponseDto);
+    }
+
+    private void publishAll(Map<Long, List<BookingResponseDto>> events) {
+        events.forEach((userId, bookings) -> bookingEventBus.publish(BOOKINGS_EVENT, bookings, List.of(userId)));
+    }
+
+    private BookingBatchResult toFailure(Long bookingId, RuntimeException e) {
+        HttpStatus status;
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ForbiddenException) {
+            status = HttpStatus.FORBIDDEN;
+        } else if (e instanceof ConflictException) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+        }
+        return BookingBatchResult.builder()
+                .bookingId(bookingId)
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
     }
 
     private void validateBookingCreation(BookingRequestDto bookingRequestDto, Item item, Long bookerId) {
@@ -175,4 +479,7 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Дата начала не может быть в прошлом.");
         }
     }
-}
\ No newline at end of file
+
+    private record StreamChunk(List<BookingResponseDto> bookings, ScrollPosition next, boolean hasNext) {
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@UtilityClass
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    public String encode(Booking booking) {
+        String key = booking.getStart() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ScrollPosition decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = key.lastIndexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("start", LocalDateTime.parse(key.substring(0, separatorIndex)));
+            keys.put("id", Long.parseLong(key.substring(separatorIndex + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Некорректный курсор: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemSchedule> schedules = new ConcurrentHashMap<>();
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return schedule(itemId).isFree(start, end);
+    }
+
+    public LocalDateTime nextFreeSlot(Long itemId, LocalDateTime from, Duration duration) {
+        return schedule(itemId).nextFreeSlot(from, duration);
+    }
+
+    public void reserve(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemSchedule schedule = schedule(itemId);
+        Boolean added = schedule.tryAdd(start, end);
+        while (added == null) {
+            schedule = schedule(itemId);
+            added = schedule.tryAdd(start, end);
+        }
+        if (!added) {
+            throw conflict(schedule, start, end);
+        }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, ACTIVE_STATUSES,
+                end, start)) {
+            schedule.remove(start, end);
+            evict(itemId);
+            throw conflict(schedule(itemId), start, end);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            ItemSchedule reserved = schedule;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.remove(start, end);
+                    }
+                }
+            });
+        }
+    }
+
+    public void release(Long itemId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            ItemSchedule schedule = schedules.get(itemId);
+            if (schedule == null) {
+                return;
+            }
+            if (schedule.remove(start, end)) {
+                evictIfEmpty(itemId);
+            } else {
+                evict(itemId);
+            }
+        });
+    }
+
+    public void releaseBooker(Long bookerId) {
+        List<Booking> bookings = bookingRepository.findByBookerIdAndStatusInAndEndAfter(bookerId, ACTIVE_STATUSES,
+                LocalDateTime.now());
+        bookings.forEach(booking -> release(booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    public void removeItems(Collection<Long> itemIds) {
+        List<Long> removed = List.copyOf(itemIds);
+        afterCommit(() -> removed.forEach(schedules::remove));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.interval-index.sweep-interval}")
+    public void sweep() {
+        schedules.keySet().forEach(this::evictIfEmpty);
+    }
+
+    private ConflictException conflict(ItemSchedule schedule, LocalDateTime start, LocalDateTime end) {
+        return new ConflictException("Вещь уже забронирована на этот период. Ближайшее свободное время: " +
+                schedule.nextFreeSlot(start, Duration.between(start, end)));
+    }
+
+    private void evict(Long itemId) {
+        schedules.computeIfPresent(itemId, (id, schedule) -> {
+            schedule.retire();
+            return null;
+        });
+    }
+
+    private void evictIfEmpty(Long itemId) {
+        schedules.computeIfPresent(itemId, (id, schedule) -> schedule.retireIfEmpty() ? null : schedule);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private ItemSchedule schedule(Long itemId) {
+        ItemSchedule schedule = schedules.get(itemId);
+        if (schedule != null) {
+            return schedule;
+        }
+
+        ItemSchedule loaded = new ItemSchedule();
+        bookingRepository.findByItemIdAndStatusInAndEndAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now()).stream()
+                .sorted(Comparator.comparing(Booking::getStart))
+                .forEach(booking -> loaded.put(booking.getStart(), booking.getEnd()));
+        ItemSchedule existing = schedules.putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static class ItemSchedule {
+        private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+        private boolean retired;
+
+        synchronized void put(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, LocalDateTime> last = intervals.lastEntry();
+            if (last == null || !start.isBefore(last.getValue())) {
+                intervals.put(start, end);
+            } else if (end.isAfter(last.getValue())) {
+                intervals.put(last.getKey(), end);
+            }
+        }
+
+        synchronized Boolean tryAdd(LocalDateTime start, LocalDateTime end) {
+            if (retired) {
+                return null;
+            }
+            if (!isFree(start, end)) {
+                return false;
+            }
+            intervals.put(start, end);
+            return true;
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized boolean retireIfEmpty() {
+            pruneFinished();
+            retired = intervals.isEmpty();
+            return retired;
+        }
+
+        synchronized boolean remove(LocalDateTime start, LocalDateTime end) {
+            return intervals.remove(start, end);
+        }
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            pruneFinished();
+            Map.Entry<LocalDateTime, LocalDateTime> before = intervals.lowerEntry(end);
+            return before == null || !before.getValue().isAfter(start);
+        }
+
+        synchronized LocalDateTime nextFreeSlot(LocalDateTime from, Duration duration) {
+            pruneFinished();
+            LocalDateTime candidate = from;
+            Map.Entry<LocalDateTime, LocalDateTime> before = intervals.lowerEntry(candidate.plus(duration));
+            while (before != null && before.getValue().isAfter(candidate)) {
+                candidate = before.getValue();
+                before = intervals.lowerEntry(candidate.plus(duration));
+            }
+            return candidate;
+        }
+
+        private void pruneFinished() {
+            LocalDateTime now = LocalDateTime.now();
+            Iterator<Map.Entry<LocalDateTime, LocalDateTime>> iterator = intervals.headMap(now).entrySet().iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().getValue().isAfter(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
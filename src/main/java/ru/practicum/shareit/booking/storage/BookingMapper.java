@@ -6,6 +6,8 @@ import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
 
 @UtilityClass
 public class BookingMapper {
@@ -23,22 +25,10 @@ public class BookingMapper {
     }
 
     public static BookingResponseDto toBookingResponseDto(Booking booking) {
-        return BookingResponseDto.builder()
-                .id(booking.getId())
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .status(booking.getStatus())
-                .booker(BookerDto.builder()
-                        .id(booking.getBooker().getId())
-                        .name(booking.getBooker().getName())
-                        .email(booking.getBooker().getEmail())
-                        .build())
-                .item(ItemBookingDto.builder()
-                        .id(booking.getItem().getId())
-                        .name(booking.getItem().getName())
-                        .description(booking.getItem().getDescription())
-                        .available(booking.getItem().getAvailable())
-                        .build())
-                .build();
+        User booker = booking.getBooker();
+        Item item = booking.getItem();
+        return new BookingResponseDto(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                new BookerDto(booker.getId(), booker.getName(), booker.getEmail()),
+                new ItemBookingDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable()));
     }
 }
\ No newline at end of file
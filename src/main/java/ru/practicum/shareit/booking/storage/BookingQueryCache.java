@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingPage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class BookingQueryCache {
+    private final Cache<UserKey, Entry> entries;
+    private final AtomicLong generations = new AtomicLong();
+
+    public BookingQueryCache(MeterRegistry meterRegistry,
+                             @Value("${shareit.booking.state-cache.maximum-rows}") long maximumRows,
+                             @Value("${shareit.booking.state-cache.ttl}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumRows)
+                .weigher((UserKey key, Entry entry) -> entry.weight())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "bookingStates");
+    }
+
+    public long generation(Long userId, Role role) {
+        return entries.get(new UserKey(userId, role), ignored -> new Entry(generations.incrementAndGet())).generation;
+    }
+
+    public BookingPage get(Long userId, Role role, PageKey pageKey, Supplier<BookingPage> loader) {
+        if (pageKey.size() == null) {
+            return loader.get();
+        }
+        UserKey key = new UserKey(userId, role);
+        Entry entry = entries.get(key, ignored -> new Entry(generations.incrementAndGet()));
+        BookingPage page = entry.pages.get(pageKey);
+        if (page != null) {
+            return page;
+        }
+
+        page = loader.get();
+        if (entry.pages.putIfAbsent(pageKey, page) == null) {
+            entry.rows.addAndGet(page.getBookings().size());
+            entries.asMap().replace(key, entry, entry);
+        }
+        return page;
+    }
+
+    public void invalidate(Long bookerId, Long ownerId) {
+        invalidate(List.of(bookerId), List.of(ownerId));
+    }
+
+    public void invalidate(Collection<Long> bookerIds, Collection<Long> ownerIds) {
+        List<UserKey> keys = new ArrayList<>(bookerIds.size() + ownerIds.size());
+        bookerIds.forEach(bookerId -> keys.add(new UserKey(bookerId, Role.BOOKER)));
+        ownerIds.forEach(ownerId -> keys.add(new UserKey(ownerId, Role.OWNER)));
+        afterCommit(() -> entries.invalidateAll(keys));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    public record PageKey(String state, Integer from, Integer size, String cursor) {
+    }
+
+    private record UserKey(Long userId, Role role) {
+    }
+
+    private static class Entry {
+        private final long generation;
+        private final Map<PageKey, BookingPage> pages = new ConcurrentHashMap<>();
+        private final AtomicInteger rows = new AtomicInteger();
+
+        private Entry(long generation) {
+            this.generation = generation;
+        }
+
+        private int weight() {
+            return 1 + rows.get();
+        }
+    }
+}
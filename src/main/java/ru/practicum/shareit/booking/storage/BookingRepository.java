@@ -1,46 +1,90 @@
 package ru.practicum.shareit.booking.storage;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdIn(Collection<Long> ids);
 
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.status = 'WAITING'")
+    int updateStatusIfWaiting(Long id, BookingStatus status);
 
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdOrderByStartDescIdDesc(Long bookerId, ScrollPosition position, Limit limit);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndPhaseOrderByStartDescIdDesc(Long bookerId, BookingPhase phase,
+                                                                 ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBookerIdAndStatusOrderByStartDescIdDesc(Long bookerId, BookingStatus status,
+                                                                  ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdOrderByStartDescIdDesc(Long ownerId, ScrollPosition position, Limit limit);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdAndPhaseOrderByStartDescIdDesc(Long ownerId, BookingPhase phase,
+                                                                ScrollPosition position, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentByBookerId(Long bookerId, LocalDateTime now);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdAndStatusOrderByStartDescIdDesc(Long ownerId, BookingStatus status,
+                                                                 ScrollPosition position, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start <= :now AND b.end >= :now ORDER BY b.start DESC")
-    List<Booking> findCurrentByOwnerId(Long ownerId, LocalDateTime now);
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' AND b.end > :now " +
+            "AND b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = b.item.id " +
+            "AND n.status = 'APPROVED' AND n.end > :now)")
+    List<Booking> findNextBookings(List<Long> itemIds, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.end > CURRENT_TIMESTAMP ORDER BY b.start ASC")
-    List<Booking> findNextBookings(Long itemId);
+    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' AND b.end < :now " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l WHERE l.item.id = b.item.id " +
+            "AND l.status = 'APPROVED' AND l.end < :now)")
+    List<Booking> findLastBookings(List<Long> itemIds, LocalDateTime now);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.end < CURRENT_TIMESTAMP ORDER BY b.end DESC")
-    List<Booking> findLastBookings(Long itemId);
+    @Query("SELECT DISTINCT b.booker.id FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :end")
+    List<Long> findBookerIdsByItemIdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                           LocalDateTime end);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.booker.id = :bookerId " +
-            "AND b.end < :endTime AND b.status = 'APPROVED'")
-    List<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime endTime);
+    @Query("SELECT DISTINCT b.booker.id FROM Booking b WHERE b.item.id = :itemId")
+    List<Long> findBookerIdsByItemId(Long itemId);
+
+    @Query("SELECT DISTINCT b.booker.id FROM Booking b WHERE b.ownerId = :ownerId")
+    List<Long> findBookerIdsByOwnerId(Long ownerId);
+
+    @Query("SELECT DISTINCT b.ownerId FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findOwnerIdsByBookerId(Long bookerId);
+
+    List<Booking> findByItemIdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                     LocalDateTime end);
+
+    List<Booking> findByBookerIdAndStatusInAndEndAfter(Long bookerId, Collection<BookingStatus> statuses,
+                                                       LocalDateTime end);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status,
+                                                           LocalDateTime end);
 }
\ No newline at end of file
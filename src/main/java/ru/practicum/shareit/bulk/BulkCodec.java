@@ -0,0 +1,278 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+@Component
+@RequiredArgsConstructor
+public class BulkCodec {
+    private final ObjectMapper objectMapper;
+
+    public <T> Iterator<BulkRecord<T>> read(InputStream in, BulkFormat format, Class<T> type) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return format == BulkFormat.CSV ? new CsvRecords<>(reader, type) : new NdjsonRecords<>(reader, type);
+    }
+
+    public <T> BulkWriter<T> write(OutputStream out, BulkFormat format, List<String> columns) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        BulkWriter<T> bulkWriter = format == BulkFormat.CSV
+                ? new CsvWriter<>(writer, columns)
+                : new NdjsonWriter<>(writer);
+        bulkWriter.start();
+        return bulkWriter;
+    }
+
+    public abstract static class BulkWriter<T> implements Consumer<T> {
+        protected final Writer writer;
+
+        private BulkWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void start() {
+        }
+
+        abstract void write(T value) throws IOException;
+
+        @Override
+        public void accept(T value) {
+            try {
+                write(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private final class NdjsonWriter<T> extends BulkWriter<T> {
+        private NdjsonWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void write(T value) throws IOException {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        }
+    }
+
+    private final class CsvWriter<T> extends BulkWriter<T> {
+        private final List<String> columns;
+
+        private CsvWriter(Writer writer, List<String> columns) {
+            super(writer);
+            this.columns = columns;
+        }
+
+        @Override
+        void start() {
+            try {
+                writeRow(columns);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void write(T value) throws IOException {
+            JsonNode node = objectMapper.valueToTree(value);
+            List<String> fields = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                JsonNode field = node.get(column);
+                fields.add(field == null || field.isNull() ? "" : field.asText());
+            }
+            writeRow(fields);
+        }
+
+        private void writeRow(List<String> fields) throws IOException {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String field = fields.get(i);
+                if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                        || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(field.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(field);
+                }
+            }
+            writer.write('\n');
+        }
+    }
+
+    private abstract static class Records<T> implements Iterator<BulkRecord<T>> {
+        protected final BufferedReader reader;
+        protected long line;
+        private BulkRecord<T> next;
+
+        private Records(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        abstract BulkRecord<T> readNext() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = readNext();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public BulkRecord<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BulkRecord<T> record = next;
+            next = null;
+            return record;
+        }
+    }
+
+    private final class NdjsonRecords<T> extends Records<T> {
+        private final Class<T> type;
+
+        private NdjsonRecords(BufferedReader reader, Class<T> type) {
+            super(reader);
+            this.type = type;
+        }
+
+        @Override
+        BulkRecord<T> readNext() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+            } while (text != null && text.isBlank());
+            if (text == null) {
+                return null;
+            }
+            try {
+                return new BulkRecord<>(line, objectMapper.readValue(text, type), null);
+            } catch (JsonProcessingException e) {
+                return new BulkRecord<>(line, null, "Некорректная строка: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private final class CsvRecords<T> extends Records<T> {
+        private final Class<T> type;
+        private List<String> header;
+
+        private CsvRecords(BufferedReader reader, Class<T> type) {
+            super(reader);
+            this.type = type;
+        }
+
+        @Override
+        BulkRecord<T> readNext() throws IOException {
+            if (header == null) {
+                header = readRow();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(String::trim);
+            }
+
+            List<String> fields;
+            long start;
+            do {
+                start = line + 1;
+                fields = readRow();
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != header.size()) {
+                return new BulkRecord<>(start, null, "Ожидалось полей: " + header.size() + ", получено: " +
+                        fields.size());
+            }
+
+            ObjectNode node = objectMapper.createObjectNode();
+            for (int i = 0; i < header.size(); i++) {
+                if (!fields.get(i).isEmpty()) {
+                    node.put(header.get(i), fields.get(i));
+                }
+            }
+            try {
+                return new BulkRecord<>(start, objectMapper.treeToValue(node, type), null);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                return new BulkRecord<>(start, null, "Некорректная строка: " + e.getMessage());
+            }
+        }
+
+        private List<String> readRow() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.bulk;
+
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.ValidationException;
+
+public enum BulkFormat {
+    NDJSON,
+    CSV;
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static BulkFormat of(MediaType mediaType) {
+        if (MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+            return NDJSON;
+        }
+        if (MediaType.valueOf(CSV_VALUE).includes(mediaType)) {
+            return CSV;
+        }
+        throw new ValidationException("Неподдерживаемый формат: " + mediaType);
+    }
+}
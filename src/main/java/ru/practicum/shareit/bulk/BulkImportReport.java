@@ -0,0 +1,37 @@
+package ru.practicum.shareit.bulk;
+
+import ru.practicum.shareit.bulk.dto.BulkImportError;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportReport {
+    private final int maxErrors;
+    private final List<BulkImportError> errors = new ArrayList<>();
+    private long imported;
+    private long failed;
+
+    public BulkImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void failed(long line, String error) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new BulkImportError(line, error));
+        }
+    }
+
+    public BulkImportResult toResult() {
+        return BulkImportResult.builder()
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+    }
+}
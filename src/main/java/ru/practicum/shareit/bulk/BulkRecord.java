@@ -0,0 +1,4 @@
+package ru.practicum.shareit.bulk;
+
+public record BulkRecord<T>(long line, T value, String error) {
+}
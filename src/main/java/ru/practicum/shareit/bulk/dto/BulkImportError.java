@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportError {
+    private Long line;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private Long imported;
+    private Long failed;
+    private List<BulkImportError> errors;
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.expiry.CreatedExpiryPolicy;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS_REGION = "users";
+    public static final String ITEMS_REGION = "items";
+
+    @Bean
+    public javax.cache.configuration.Configuration<Object, Object> cacheConfiguration(
+            @Value("${shareit.cache.maximum-size}") long maximumSize,
+            @Value("${shareit.cache.ttl}") Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                new javax.cache.expiry.Duration(TimeUnit.MILLISECONDS, ttl.toMillis())));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheRegionsCustomizer(
+            javax.cache.configuration.Configuration<Object, Object> cacheConfiguration) {
+        return cacheManager -> List.of(USERS_REGION, ITEMS_REGION).forEach(region -> {
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, cacheConfiguration);
+            }
+        });
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(JCacheCacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager.getCacheManager());
+    }
+}
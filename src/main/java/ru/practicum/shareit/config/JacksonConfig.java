@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDtoSerializer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoSerializer;
+
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module responseSerializersModule() {
+        return new SimpleModule("shareitResponses")
+                .addSerializer(BookingResponseDto.class, new BookingResponseDtoSerializer())
+                .addSerializer(ItemDto.class, new ItemDtoSerializer());
+    }
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import java.util.function.Supplier;
+
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        if (isActive()) {
+            return action.get();
+        }
+        open();
+        try {
+            return action.get();
+        } finally {
+            close();
+        }
+    }
+
+    static boolean isActive() {
+        return Boolean.TRUE.equals(ACTIVE.get());
+    }
+
+    static void open() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    static void close() {
+        ACTIVE.remove();
+    }
+}
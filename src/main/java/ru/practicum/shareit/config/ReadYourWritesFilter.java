@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window, long maximumSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = userId(request);
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!isSafe(request)) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+            return;
+        }
+        if (recentWriters.getIfPresent(userId) == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PrimaryReads.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PrimaryReads.close();
+        }
+    }
+
+    private static boolean isSafe(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
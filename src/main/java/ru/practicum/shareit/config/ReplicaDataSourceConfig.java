@@ -0,0 +1,79 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty("shareit.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("shareit.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${shareit.datasource.replica.url}") String url,
+                                              @Value("${shareit.datasource.replica.username:${spring.datasource.username:}}")
+                                              String username,
+                                              @Value("${shareit.datasource.replica.password:${spring.datasource.password:}}")
+                                              String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${shareit.datasource.replica.max-lag}") Duration maxLag,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, maxLag, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${shareit.datasource.replica.read-your-writes-window}") Duration window,
+            @Value("${shareit.datasource.replica.read-your-writes-users}") long maximumUsers) {
+        return new ReadYourWritesFilter(window, maximumUsers);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor,
+                meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
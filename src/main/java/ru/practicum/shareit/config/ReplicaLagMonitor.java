@@ -0,0 +1,61 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+public class ReplicaLagMonitor {
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private volatile Duration lag = Duration.ZERO;
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        Gauge.builder("shareit.datasource.replica.lag", this, monitor -> monitor.lag.toMillis() / 1000.0)
+                .description("Отставание реплики")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("shareit.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("Чтение направляется на реплику")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica.lag-check-interval}")
+    public void check() {
+        boolean usable;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            primary.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", Timestamp.valueOf(now));
+            Timestamp beat = replica.queryForObject("SELECT beat FROM replica_heartbeat WHERE id = 1",
+                    Timestamp.class);
+            lag = Duration.between(beat.toLocalDateTime(), now);
+            usable = lag.compareTo(maxLag) <= 0;
+        } catch (DataAccessException e) {
+            log.debug("Не удалось проверить отставание реплики", e);
+            usable = false;
+        }
+        if (usable && !replicaUsable) {
+            log.info("Чтение переключено на реплику, отставание {} мс", lag.toMillis());
+        } else if (!usable && replicaUsable) {
+            log.warn("Чтение переключено на основную базу, отставание реплики {} мс", lag.toMillis());
+        }
+        replicaUsable = usable;
+    }
+}
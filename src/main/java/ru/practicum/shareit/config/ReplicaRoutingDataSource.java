@@ -0,0 +1,45 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryRoutes = routeCounter(meterRegistry, PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, REPLICA);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !PrimaryReads.isActive()
+                && lagMonitor.isReplicaUsable()) {
+            replicaRoutes.increment();
+            return REPLICA;
+        }
+        primaryRoutes.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("shareit.datasource.routes")
+                .description("Соединения, выданные пулу")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+}
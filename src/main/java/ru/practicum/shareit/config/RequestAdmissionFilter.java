@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class RequestAdmissionFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final Duration admissionTimeout;
+    private final ObjectMapper objectMapper;
+
+    public RequestAdmissionFilter(@Value("${shareit.web.max-concurrent-requests}") int maxConcurrentRequests,
+                                  @Value("${shareit.web.admission-timeout}") Duration admissionTimeout,
+                                  ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.admissionTimeout = admissionTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            log.debug("Запрос {} {} отклонён: превышен лимит одновременных запросов",
+                    request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Сервис перегружен, повторите запрос позже."));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(admissionTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final Duration slowRequestThreshold;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${shareit.metrics.slow-request-threshold}") Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        RequestQueries queries = RequestQueries.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestQueries.close();
+            record(request, queries, System.nanoTime() - startedAt);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private void record(HttpServletRequest request, RequestQueries queries, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("shareit.http.sql.statements")
+                .description("SQL-запросы, выполненные за один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries.getStatementCount());
+        Timer.builder("shareit.http.jdbc.time")
+                .description("Время выполнения JDBC-запросов за один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowRequestThreshold.toNanos()) {
+            log.warn("Медленный запрос {} {}: {} мс, SQL-запросов: {}, время JDBC: {} мс\n{}",
+                    request.getMethod(), request.getRequestURI(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), queries.getStatementCount(),
+                    TimeUnit.NANOSECONDS.toMillis(queries.getJdbcNanos()),
+                    String.join("\n", queries.getStatements()));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class RequestQueries {
+    private static final int MAX_RECORDED_STATEMENTS = 100;
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    private final List<String> statements = new ArrayList<>();
+    private int statementCount;
+    private long jdbcNanos;
+
+    private RequestQueries() {
+    }
+
+    static RequestQueries open() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static void record(String sql, long nanos) {
+        RequestQueries queries = CURRENT.get();
+        if (queries == null) {
+            return;
+        }
+        queries.statementCount++;
+        queries.jdbcNanos += nanos;
+        if (sql != null && queries.statements.size() < MAX_RECORDED_STATEMENTS) {
+            queries.statements.add(sql);
+        }
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class RequestQueriesDataSource extends DelegatingDataSource {
+
+    public RequestQueriesDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connectionProxy(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connectionProxy(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection connectionProxy(Connection target) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "getTargetConnection":
+                            return target;
+                        default:
+                            break;
+                    }
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                        return statementProxy(statement, (Connection) proxy, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private static Statement statementProxy(Statement target, Connection connection, String preparedSql) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(target, method, args);
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text
+                            ? text
+                            : preparedSql;
+                    long startedAt = System.nanoTime();
+                    try {
+                        return invoke(target, method, args);
+                    } finally {
+                        RequestQueries.record(sql, System.nanoTime() - startedAt);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
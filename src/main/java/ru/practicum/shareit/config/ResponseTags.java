@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ResponseTags {
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong usersGeneration = new AtomicLong();
+
+    public String tag(Object... parts) {
+        StringBuilder tag = new StringBuilder("\"").append(instanceId).append('-').append(usersGeneration.get());
+        for (Object part : parts) {
+            tag.append('-').append(part);
+        }
+        return tag.append('"').toString();
+    }
+
+    public void usersChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usersGeneration.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                usersGeneration.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SequenceIdAllocator {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public SequenceIdAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    public List<Long> next(String sequence, int count) {
+        Block block = blocks.computeIfAbsent(sequence, ignored -> new Block());
+        List<Long> ids = new ArrayList<>(count);
+        synchronized (block) {
+            while (ids.size() < count) {
+                if (block.next == block.limit) {
+                    Long low = jdbcTemplate.queryForObject(
+                            dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+                    block.next = low;
+                    block.limit = low + ALLOCATION_SIZE;
+                }
+                ids.add(block.next++);
+            }
+        }
+        return ids;
+    }
+
+    private static class Block {
+        private long next;
+        private long limit;
+    }
+}
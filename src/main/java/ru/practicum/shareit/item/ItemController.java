@@ -1,12 +1,23 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.bulk.BulkCodec;
+import ru.practicum.shareit.bulk.BulkFormat;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -14,7 +25,11 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemController {
+    private static final List<String> EXPORT_COLUMNS = List.of("id", "name", "description", "available",
+            "requestId");
+
     private final ItemService itemService;
+    private final BulkCodec bulkCodec;
 
     @PostMapping
     public ItemDto create(@RequestBody ItemDto itemDto,
@@ -33,21 +48,39 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDtoWithBookings getById(@PathVariable Long itemId,
-                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                       @RequestHeader("X-Sharer-User-Id") Long userId,
+                                       WebRequest request) {
         log.info("GET /items/{} - получение вещи, пользователь: {}", itemId, userId);
+        if (request.checkNotModified(itemService.getTag(itemId, userId))) {
+            return null;
+        }
         return itemService.getById(itemId, userId);
     }
 
     @GetMapping
-    public List<ItemDtoWithBookings> getByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemDtoWithBookings> getByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                WebRequest request) {
         log.info("GET /items - получение вещей владельца: {}", userId);
+        if (request.checkNotModified(itemService.getOwnerTag(userId))) {
+            return null;
+        }
         return itemService.getByOwner(userId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> search(@RequestParam String text) {
-        log.info("GET /items/search?text={} - поиск вещей", text);
-        return itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(defaultValue = "0") Integer from,
+                                @RequestParam(required = false) Integer size) {
+        log.info("GET /items/search?text={}&from={}&size={} - поиск вещей", text, from, size);
+        return itemService.search(text, from, size);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable Long itemId,
+                                        @RequestParam(defaultValue = "0") Integer from,
+                                        @RequestParam(defaultValue = "10") Integer size) {
+        log.info("GET /items/{}/comments?from={}&size={} - получение комментариев", itemId, from, size);
+        return itemService.getComments(itemId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -58,4 +91,35 @@ public class ItemController {
                 itemId, commentDto, userId);
         return itemService.addComment(itemId, commentDto, userId);
     }
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public BulkImportResult importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        @RequestHeader("X-Sharer-User-Id") Long userId,
+                                        InputStream body) {
+        log.info("POST /items/import - пакетный импорт вещей, формат: {}, пользователь: {}", contentType, userId);
+        return itemService.importItems(bulkCodec.read(body, BulkFormat.of(contentType), ItemDto.class), userId);
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            HttpServletResponse response) throws IOException {
+        log.info("GET /items/export (ndjson) - выгрузка вещей владельца: {}", userId);
+        export(userId, response, BulkFormat.NDJSON, MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @GetMapping(path = "/export", produces = BulkFormat.CSV_VALUE)
+    public void exportItemsCsv(@RequestHeader("X-Sharer-User-Id") Long userId,
+                               HttpServletResponse response) throws IOException {
+        log.info("GET /items/export (csv) - выгрузка вещей владельца: {}", userId);
+        export(userId, response, BulkFormat.CSV, BulkFormat.CSV_VALUE);
+    }
+
+    private void export(Long userId, HttpServletResponse response, BulkFormat format,
+                        String contentType) throws IOException {
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BulkCodec.BulkWriter<ItemDto> writer = bulkCodec.write(response.getOutputStream(), format, EXPORT_COLUMNS);
+        itemService.exportItems(userId, writer);
+        writer.flush();
+    }
 }
\ No newline at end of file
@@ -7,13 +7,8 @@ import ru.practicum.shareit.item.model.Item;
 @UtilityClass
 public class ItemMapper {
     public ItemDto toItemDto(Item item) {
-        return ItemDto.builder()
-                .id(item.getId())
-                .name(item.getName())
-                .description(item.getDescription())
-                .available(item.getAvailable())
-                .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
-                .build();
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequest() != null ? item.getRequest().getId() : null);
     }
 
     public Item toItem(ItemDto itemDto) {
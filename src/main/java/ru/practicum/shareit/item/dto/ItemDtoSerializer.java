@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class ItemDtoSerializer extends StdSerializer<ItemDto> {
+
+    public ItemDtoSerializer() {
+        super(ItemDto.class);
+    }
+
+    @Override
+    public void serialize(ItemDto item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        writeNumber(gen, "id", item.getId());
+        gen.writeStringField("name", item.getName());
+        gen.writeStringField("description", item.getDescription());
+        if (item.getAvailable() == null) {
+            gen.writeNullField("available");
+        } else {
+            gen.writeBooleanField("available", item.getAvailable());
+        }
+        writeNumber(gen, "requestId", item.getRequestId());
+        gen.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator gen, String name, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+}
@@ -19,5 +19,6 @@ public class ItemDtoWithBookings {
     private Long requestId;
     private BookingShortDto lastBooking;
     private BookingShortDto nextBooking;
+    private Integer commentCount;
     private List<CommentDto> comments;
 }
\ No newline at end of file
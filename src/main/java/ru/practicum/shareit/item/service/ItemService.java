@@ -1,22 +1,36 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.bulk.BulkRecord;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     List<ItemDtoWithBookings> getByOwner(Long ownerId);
 
     ItemDtoWithBookings getById(Long id, Long userId);
 
+    String getOwnerTag(Long ownerId);
+
+    String getTag(Long id, Long userId);
+
     ItemDto create(ItemDto itemDto, Long ownerId);
 
     ItemDto update(Long id, ItemDto itemDto, Long ownerId);
 
     void delete(Long id);
 
-    List<ItemDto> search(String text);
+    List<ItemDto> search(String text, Integer from, Integer size);
+
+    List<CommentDto> getComments(Long itemId, Integer from, Integer size);
 
     CommentDto addComment(Long itemId, CommentDto commentDto, Long authorId);
+
+    BulkImportResult importItems(Iterator<BulkRecord<ItemDto>> items, Long ownerId);
+
+    void exportItems(Long ownerId, Consumer<ItemDto> consumer);
 }
\ No newline at end of file
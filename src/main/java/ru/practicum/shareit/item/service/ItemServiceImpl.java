@@ -1,11 +1,27 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingEventBus;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingQueryCache;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.bulk.BulkImportReport;
+import ru.practicum.shareit.bulk.BulkRecord;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+import ru.practicum.shareit.config.ResponseTags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemMapper;
@@ -15,37 +31,80 @@ import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.CommentWriteBehind;
+import ru.practicum.shareit.item.storage.ItemBulkRepository;
+import ru.practicum.shareit.item.storage.ItemCommentCount;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.LatestComment;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final String ITEM_EVENT = "item";
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingQueryCache bookingQueryCache;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRequestRepository itemRequestRepository;
+    private final CommentWriteBehind commentWriteBehind;
+    private final ResponseTags responseTags;
+    private final BookingEventBus bookingEventBus;
+    private final ItemBulkRepository itemBulkRepository;
+
+    @Value("${shareit.comments.latest-limit}")
+    private int latestCommentsLimit;
+    @Value("${shareit.bulk.batch-size}")
+    private int importBatchSize;
+    @Value("${shareit.bulk.max-errors}")
+    private int maxImportErrors;
 
     @Override
     public List<ItemDtoWithBookings> getByOwner(Long ownerId) {
-        if (!userRepository.existsById(ownerId)) {
+        if (userRepository.findById(ownerId).isEmpty()) {
             throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
         }
 
         List<Item> items = itemRepository.findByOwnerId(ownerId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
 
-        List<Comment> allComments = commentRepository.findByItemIdIn(itemIds);
+        Map<Long, Integer> commentCounts = toCommentCountMap(itemRepository.findCommentCounts(itemIds));
+        Map<Long, List<CommentDto>> latestComments = toLatestCommentsMap(
+                commentRepository.findLatestByItemIdIn(itemIds, latestCommentsLimit));
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = toBookingShortDtoMap(bookingRepository.findLastBookings(itemIds, now));
+        Map<Long, BookingShortDto> nextBookings = toBookingShortDtoMap(bookingRepository.findNextBookings(itemIds, now));
 
         return items.stream()
-                .map(item -> toItemDtoWithBookings(item, ownerId, allComments))
+                .map(item -> toItemDtoWithBookings(item, lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()), commentCounts.getOrDefault(item.getId(), 0),
+                        latestComments.getOrDefault(item.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
     }
 
@@ -54,7 +113,46 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + id + " не найдена."));
 
-        return toItemDtoWithBookings(item, userId, Collections.emptyList());
+        List<Long> itemIds = List.of(id);
+        BookingShortDto lastBooking = null;
+        BookingShortDto nextBooking = null;
+        if (item.getOwner().getId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBooking = toBookingShortDtoMap(bookingRepository.findLastBookings(itemIds, now)).get(id);
+            nextBooking = toBookingShortDtoMap(bookingRepository.findNextBookings(itemIds, now)).get(id);
+        }
+
+        return toItemDtoWithBookings(item, lastBooking, nextBooking,
+                toCommentCountMap(itemRepository.findCommentCounts(itemIds)).getOrDefault(id, 0),
+                toLatestCommentsMap(commentRepository.findLatestByItemIdIn(itemIds, latestCommentsLimit))
+                        .getOrDefault(id, Collections.emptyList()));
+    }
+
+    @Override
+    public String getOwnerTag(Long ownerId) {
+        return responseTags.tag("items", ownerId, itemRepository.findOwnerVersionTag(ownerId, LocalDateTime.now()));
+    }
+
+    @Override
+    public String getTag(Long id, Long userId) {
+        return responseTags.tag("item", id, itemRepository.findVersionTag(id, userId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Вещь с id=" + id + " не найдена.")));
+    }
+
+    @Override
+    public List<CommentDto> getComments(Long itemId, Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id=" + itemId + " не найдена.");
+        }
+
+        ScrollPosition position = from > 0 ? ScrollPosition.offset(from - 1) : ScrollPosition.offset();
+        return commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, position, Limit.of(size))
+                .stream()
+                .map(this::toCommentDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -67,11 +165,18 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(owner);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(itemRequestRepository.findById(itemDto.getRequestId())
+                    .orElseThrow(() -> new NotFoundException("Запрос с id=" + itemDto.getRequestId() + " не найден.")));
+        }
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3)
     public ItemDto update(Long id, ItemDto itemDto, Long ownerId) {
         Item existingItem = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Вещь с id=" + id + " не найдена."));
@@ -86,59 +191,172 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getDescription() != null) {
             existingItem.setDescription(itemDto.getDescription());
         }
+        boolean availabilityChanged = itemDto.getAvailable() != null
+                && !itemDto.getAvailable().equals(existingItem.getAvailable());
         if (itemDto.getAvailable() != null) {
             existingItem.setAvailable(itemDto.getAvailable());
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(existingItem));
+        Item savedItem = itemRepository.save(existingItem);
+        itemSearchIndex.index(savedItem);
+        bookingQueryCache.invalidate(bookingRepository.findBookerIdsByItemId(id), List.of(ownerId));
+        ItemDto savedItemDto = ItemMapper.toItemDto(savedItem);
+        if (availabilityChanged) {
+            List<Long> recipients = new ArrayList<>(bookingRepository.findBookerIdsByItemIdAndStatusInAndEndAfter(
+                    id, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now()));
+            recipients.add(ownerId);
+            bookingEventBus.publish(ITEM_EVENT, savedItemDto, recipients);
+        }
+        return savedItemDto;
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        if (!itemRepository.existsById(id)) {
-            throw new NotFoundException("Вещь с id=" + id + " не найдена.");
-        }
+        Item item = itemRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Вещь с id=" + id + " не найдена."));
+        List<Long> bookerIds = bookingRepository.findBookerIdsByItemId(id);
         itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
+        bookingIntervalIndex.removeItems(List.of(id));
+        bookingQueryCache.invalidate(bookerIds, List.of(item.getOwner().getId()));
     }
 
     @Override
-    public List<ItemDto> search(String text) {
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        if (from < 0 || size != null && size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text).stream()
+
+        List<Long> ids = itemSearchIndex.search(text, from, size == null ? Integer.MAX_VALUE : size);
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CommentDto addComment(Long itemId, CommentDto commentDto, Long authorId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Вещь с id=" + itemId + " не найдена."));
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id=" + itemId + " не найдена.");
+        }
 
         User author = userRepository.findById(authorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id=" + authorId + " не найден."));
 
-        List<Booking> userBookings = bookingRepository.findByItemIdAndBookerIdAndEndBefore(
-                itemId, authorId, LocalDateTime.now());
-
-        if (userBookings.isEmpty()) {
+        LocalDateTime created = LocalDateTime.now();
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(
+                itemId, authorId, BookingStatus.APPROVED, created)) {
             throw new ValidationException("Пользователь не брал эту вещь в аренду.");
         }
 
-        Comment comment = new Comment();
-        comment.setText(commentDto.getText());
-        comment.setItem(item);
-        comment.setAuthor(author);
-        comment.setCreated(LocalDateTime.now());
+        Long id = commentWriteBehind.write(commentDto.getText(), itemId, authorId, created);
+        return CommentDto.builder()
+                .id(id)
+                .text(commentDto.getText())
+                .authorName(author.getName())
+                .created(created)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkImportResult importItems(Iterator<BulkRecord<ItemDto>> items, Long ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
+        }
+
+        BulkImportReport report = new BulkImportReport(maxImportErrors);
+        List<BulkRecord<ItemDto>> chunk = new ArrayList<>(importBatchSize);
+        while (items.hasNext()) {
+            chunk.add(items.next());
+            if (chunk.size() == importBatchSize) {
+                importChunk(chunk, ownerId, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, ownerId, report);
+        }
+        return report.toResult();
+    }
+
+    @Override
+    public void exportItems(Long ownerId, Consumer<ItemDto> consumer) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException("Пользователь с id=" + ownerId + " не найден.");
+        }
+        itemBulkRepository.streamByOwner(ownerId, consumer);
+    }
+
+    private void importChunk(List<BulkRecord<ItemDto>> chunk, Long ownerId, BulkImportReport report) {
+        List<BulkRecord<ItemDto>> valid = new ArrayList<>(chunk.size());
+        Set<Long> requestIds = new HashSet<>();
+        for (BulkRecord<ItemDto> record : chunk) {
+            if (record.error() != null) {
+                report.failed(record.line(), record.error());
+                continue;
+            }
+            try {
+                validateItemDto(record.value());
+            } catch (ValidationException e) {
+                report.failed(record.line(), e.getMessage());
+                continue;
+            }
+            valid.add(record);
+            if (record.value().getRequestId() != null) {
+                requestIds.add(record.value().getRequestId());
+            }
+        }
 
-        Comment savedComment = commentRepository.save(comment);
-        return toCommentDto(savedComment);
+        Set<Long> existingRequests = requestIds.isEmpty()
+                ? Set.of()
+                : itemBulkRepository.findExistingRequestIds(requestIds);
+        List<BulkRecord<ItemDto>> rows = new ArrayList<>(valid.size());
+        for (BulkRecord<ItemDto> record : valid) {
+            Long requestId = record.value().getRequestId();
+            if (requestId != null && !existingRequests.contains(requestId)) {
+                report.failed(record.line(), "Запрос с id=" + requestId + " не найден.");
+            } else {
+                rows.add(record);
+            }
+        }
+        insertRows(rows, ownerId, report);
     }
 
-    private ItemDtoWithBookings toItemDtoWithBookings(Item item, Long userId, List<Comment> allComments) {
+    private void insertRows(List<BulkRecord<ItemDto>> rows, Long ownerId, BulkImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids;
+        try {
+            ids = itemBulkRepository.insertAll(rows.stream().map(BulkRecord::value).toList(), ownerId);
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() > 1) {
+                rows.forEach(row -> insertRows(List.of(row), ownerId, report));
+            } else {
+                report.failed(rows.get(0).line(), "Вещь не сохранена: нарушены ограничения целостности.");
+            }
+            return;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Item item = ItemMapper.toItem(rows.get(i).value());
+            item.setId(ids.get(i));
+            itemSearchIndex.index(item);
+        }
+        report.imported(rows.size());
+    }
+
+    private ItemDtoWithBookings toItemDtoWithBookings(Item item, BookingShortDto lastBooking,
+                                                      BookingShortDto nextBooking, int commentCount,
+                                                      List<CommentDto> latestComments) {
         ItemDtoWithBookings dto = new ItemDtoWithBookings();
         dto.setId(item.getId());
         dto.setName(item.getName());
@@ -146,48 +364,35 @@ public class ItemServiceImpl implements ItemService {
         dto.setAvailable(item.getAvailable());
         dto.setRequestId(item.getRequest() != null ? item.getRequest().getId() : null);
 
-        if (item.getOwner().getId().equals(userId)) {
-            dto.setLastBooking(getLastBooking(item.getId()));
-            dto.setNextBooking(getNextBooking(item.getId()));
-        }
-
-        List<CommentDto> itemComments = allComments.stream()
-                .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                .map(this::toCommentDto)
-                .collect(Collectors.toList());
-
-        if (allComments.isEmpty()) {
-            itemComments = getCommentsForItem(item.getId());
-        }
-
-        dto.setComments(itemComments);
+        dto.setLastBooking(lastBooking);
+        dto.setNextBooking(nextBooking);
+        dto.setCommentCount(commentCount);
+        dto.setComments(latestComments);
         return dto;
     }
 
-    private BookingShortDto getLastBooking(Long itemId) {
-        List<Booking> lastBookings = bookingRepository.findLastBookings(itemId);
-        if (!lastBookings.isEmpty()) {
-            Booking booking = lastBookings.get(0);
-            return new BookingShortDto(booking.getId(), booking.getBooker().getId(),
-                    booking.getStart(), booking.getEnd());
-        }
-        return null;
+    private Map<Long, Integer> toCommentCountMap(List<ItemCommentCount> counts) {
+        return counts.stream()
+                .collect(Collectors.toMap(ItemCommentCount::getItemId, ItemCommentCount::getCommentCount));
     }
 
-    private BookingShortDto getNextBooking(Long itemId) {
-        List<Booking> nextBookings = bookingRepository.findNextBookings(itemId);
-        if (!nextBookings.isEmpty()) {
-            Booking booking = nextBookings.get(0);
-            return new BookingShortDto(booking.getId(), booking.getBooker().getId(),
-                    booking.getStart(), booking.getEnd());
-        }
-        return null;
+    private Map<Long, List<CommentDto>> toLatestCommentsMap(List<LatestComment> comments) {
+        return comments.stream()
+                .collect(Collectors.groupingBy(LatestComment::getItemId,
+                        Collectors.mapping(comment -> CommentDto.builder()
+                                .id(comment.getId())
+                                .text(comment.getText())
+                                .authorName(comment.getAuthorName())
+                                .created(comment.getCreated())
+                                .build(), Collectors.toList())));
     }
 
-    private List<CommentDto> getCommentsForItem(Long itemId) {
-        return commentRepository.findByItemId(itemId).stream()
-                .map(this::toCommentDto)
-                .collect(Collectors.toList());
+    private Map<Long, BookingShortDto> toBookingShortDtoMap(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(),
+                        booking -> new BookingShortDto(booking.getId(), booking.getBooker().getId(),
+                                booking.getStart(), booking.getEnd()),
+                        (first, second) -> first));
     }
 
     private CommentDto toCommentDto(Comment comment) {
@@ -1,18 +1,27 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    Window<Comment> findByItemIdOrderByCreatedDescIdDesc(Long itemId, ScrollPosition position, Limit limit);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query(value = "SELECT c.id AS id, c.item_id AS itemId, c.text AS text, u.name AS authorName, " +
+            "c.created AS created FROM (" +
+            "SELECT cc.*, ROW_NUMBER() OVER (PARTITION BY cc.item_id ORDER BY cc.created DESC, cc.id DESC) AS rn " +
+            "FROM comments cc WHERE cc.item_id IN (:itemIds)) c " +
+            "JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<LatestComment> findLatestByItemIdIn(Collection<Long> itemIds, int limit);
 
-    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id = :itemId")
-    List<Comment> findByItemIdWithAuthor(Long itemId);
-
-    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds")
-    List<Comment> findByItemIdInWithAuthors(List<Long> itemIds);
-}
\ No newline at end of file
+    @Query(value = "SELECT DISTINCT c.item_id FROM comments c WHERE c.author_id = :authorId", nativeQuery = true)
+    List<Long> findItemIdsByAuthorId(Long authorId);
+}
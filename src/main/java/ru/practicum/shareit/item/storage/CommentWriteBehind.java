@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.SequenceIdAllocator;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class CommentWriteBehind implements SmartLifecycle {
+    private static final String COMMENTS_SEQUENCE = "comments_seq";
+    private static final String INSERT_SQL =
+            "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)";
+    private static final String COUNT_SQL = "UPDATE items SET comment_count = comment_count + ? WHERE id = ?";
+    private static final String ITEM_EXISTS_SQL = "SELECT COUNT(*) FROM items WHERE id = ?";
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final BlockingQueue<PendingComment> queue;
+    private final int batchSize;
+    private final Duration writeTimeout;
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentWriteBehind(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              SequenceIdAllocator sequenceIdAllocator,
+                              @Value("${shareit.comments.queue-capacity}") int queueCapacity,
+                              @Value("${shareit.comments.batch-size}") int batchSize,
+                              @Value("${shareit.comments.write-timeout}") Duration writeTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequenceIdAllocator = sequenceIdAllocator;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.writeTimeout = writeTimeout;
+    }
+
+    public Long write(String text, Long itemId, Long authorId, LocalDateTime created) {
+        PendingComment comment = new PendingComment(text, itemId, authorId, created, new CompletableFuture<>());
+        if (!isRunning() || !queue.offer(comment)) {
+            throw new ServiceUnavailableException("Слишком много комментариев, повторите запрос позже.");
+        }
+        try {
+            return comment.id().get(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Комментарий не сохранён вовремя, повторите запрос позже.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Сохранение комментария прервано.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("comment-writer").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (isRunning()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> insert(batch));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).id().complete(ids.get(i));
+            }
+            log.debug("Записано комментариев: {}", batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                log.debug("Пакет из {} комментариев не записан, повтор по одному", batch.size());
+                batch.forEach(comment -> flush(List.of(comment)));
+                return;
+            }
+            PendingComment comment = batch.get(0);
+            if (e instanceof DataIntegrityViolationException) {
+                comment.id().completeExceptionally(missingReference(comment));
+                return;
+            }
+            log.warn("Не удалось записать комментарий к вещи {}", comment.itemId(), e);
+            comment.id().completeExceptionally(e);
+        }
+    }
+
+    private NotFoundException missingReference(PendingComment comment) {
+        Integer items = jdbcTemplate.queryForObject(ITEM_EXISTS_SQL, Integer.class, comment.itemId());
+        if (items == null || items == 0) {
+            return new NotFoundException("Вещь с id=" + comment.itemId() + " не найдена.");
+        }
+        return new NotFoundException("Пользователь с id=" + comment.authorId() + " не найден.");
+    }
+
+    private List<Long> insert(List<PendingComment> batch) {
+        List<Long> ids = sequenceIdAllocator.next(COMMENTS_SEQUENCE, batch.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingComment comment = batch.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, comment.text());
+                ps.setLong(3, comment.itemId());
+                ps.setLong(4, comment.authorId());
+                ps.setTimestamp(5, Timestamp.valueOf(comment.created()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+
+        List<Map.Entry<Long, Long>> counts = List.copyOf(batch.stream()
+                .collect(Collectors.groupingBy(PendingComment::itemId, Collectors.counting()))
+                .entrySet());
+        jdbcTemplate.batchUpdate(COUNT_SQL, counts, counts.size(), (ps, count) -> {
+            ps.setLong(1, count.getValue());
+            ps.setLong(2, count.getKey());
+        });
+
+        return ids;
+    }
+
+    private record PendingComment(String text, Long itemId, Long authorId, LocalDateTime created,
+                                  CompletableFuture<Long> id) {
+    }
+}
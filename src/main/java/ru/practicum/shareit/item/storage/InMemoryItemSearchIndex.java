@@ -0,0 +1,197 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("!postgres")
+@RequiredArgsConstructor
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        ensureLoaded();
+        String query = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                    .map(documents::get)
+                    .filter(document -> document != null && document.matches(query))
+                    .sorted(Comparator.comparingInt((Document document) -> document.rank(query))
+                            .thenComparing(Document::id))
+                    .skip(from)
+                    .limit(size)
+                    .map(Document::id)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = new Document(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()));
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> {
+            ensureLoaded();
+            lock.writeLock().lock();
+            try {
+                removeDocument(document.id());
+                if (available) {
+                    addDocument(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            ensureLoaded();
+            lock.writeLock().lock();
+            try {
+                removeDocument(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                itemRepository.findAll().stream()
+                        .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                        .forEach(item -> addDocument(new Document(item.getId(), normalize(item.getName()),
+                                normalize(item.getDescription()))));
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Document document) {
+        documents.put(document.id(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.id());
+        }
+    }
+
+    private void removeDocument(Long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private record Document(Long id, String name, String description) {
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        int rank(String query) {
+            int position = name.indexOf(query);
+            if (position >= 0) {
+                return position;
+            }
+            return name.length() + description.indexOf(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = InMemoryItemSearchIndex.grams(name);
+            grams.addAll(InMemoryItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
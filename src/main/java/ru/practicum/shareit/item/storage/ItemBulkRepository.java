@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.SequenceIdAllocator;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class ItemBulkRepository {
+    private static final String ITEMS_SEQUENCE = "items_seq";
+    private static final String INSERT_SQL =
+            "INSERT INTO items (id, name, description, is_available, owner_id, request_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+
+    public ItemBulkRepository(JdbcTemplate jdbcTemplate,
+                              NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                              SequenceIdAllocator sequenceIdAllocator,
+                              @Value("${shareit.bulk.batch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.sequenceIdAllocator = sequenceIdAllocator;
+    }
+
+    @Transactional
+    public List<Long> insertAll(List<ItemDto> items, Long ownerId) {
+        List<Long> ids = sequenceIdAllocator.next(ITEMS_SEQUENCE, items.size());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ItemDto item = items.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, item.getName());
+                ps.setString(3, item.getDescription());
+                ps.setBoolean(4, item.getAvailable());
+                ps.setLong(5, ownerId);
+                if (item.getRequestId() == null) {
+                    ps.setNull(6, Types.BIGINT);
+                } else {
+                    ps.setLong(6, item.getRequestId());
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+        return ids;
+    }
+
+    public Set<Long> findExistingRequestIds(Collection<Long> requestIds) {
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM requests WHERE id IN (:ids)", Map.of("ids", requestIds), Long.class));
+    }
+
+    public void streamByOwner(Long ownerId, Consumer<ItemDto> consumer) {
+        jdbcTemplate.query("SELECT id, name, description, is_available, request_id FROM items " +
+                "WHERE owner_id = ? ORDER BY id", rs -> {
+                    consumer.accept(new ItemDto(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getBoolean(4), rs.getObject(5, Long.class)));
+                }, ownerId);
+    }
+}
@@ -1,15 +1,60 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE i.available = true AND " +
-            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> search(String text);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findLockedByIdInOrderById(Collection<Long> ids);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query(value = "SELECT i.id AS itemId, i.comment_count AS commentCount FROM items i WHERE i.id IN (:itemIds)",
+            nativeQuery = true)
+    List<ItemCommentCount> findCommentCounts(Collection<Long> itemIds);
+
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "items"))
+    @Query(value = "UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id) " +
+            "WHERE id IN (:itemIds)", nativeQuery = true)
+    int recountComments(Collection<Long> itemIds);
+
+    @Query(value = "SELECT CONCAT_WS('-', CASE WHEN i.owner_id = :userId THEN 'o' ELSE 'u' END, " +
+            "i.version, i.comment_count, (SELECT CONCAT_WS('-', COUNT(*), COALESCE(SUM(b.version), 0), " +
+            "COALESCE(SUM(CASE WHEN b.end_date < :now THEN 1 ELSE 0 END), 0)) FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED')) FROM items i WHERE i.id = :itemId",
+            nativeQuery = true)
+    Optional<String> findVersionTag(Long itemId, Long userId, LocalDateTime now);
+
+    @Query(value = "SELECT CONCAT_WS('-', COUNT(*), COALESCE(SUM(i.version), 0), COALESCE(SUM(i.comment_count), 0), " +
+            "COALESCE(MAX(i.id), 0), (SELECT CONCAT_WS('-', COUNT(*), COALESCE(SUM(b.version), 0), " +
+            "COALESCE(SUM(CASE WHEN b.end_date < :now THEN 1 ELSE 0 END), 0)) FROM bookings b " +
+            "WHERE b.owner_id = :ownerId AND b.status = 'APPROVED')) FROM items i WHERE i.owner_id = :ownerId",
+            nativeQuery = true)
+    String findOwnerVersionTag(Long ownerId, LocalDateTime now);
+
+    @Query(value = "SELECT i.id FROM items i WHERE i.is_available AND " +
+            "(i.name ILIKE CONCAT('%', :text, '%') OR i.description ILIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Long> searchRanked(String text, int from, int size);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchIndex {
+    List<Long> search(String text, int from, int size);
+
+    void index(Item item);
+
+    void remove(Long itemId);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.storage;
+
+import java.time.LocalDateTime;
+
+public interface LatestComment {
+    Long getId();
+
+    Long getItemId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@Profile("postgres")
+@RequiredArgsConstructor
+public class PostgresItemSearchIndex implements ItemSearchIndex {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        return itemRepository.searchRanked(text, from, size);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+}
@@ -1,11 +1,46 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
+@Slf4j
 public class ItemRequestController {
-}
\ No newline at end of file
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    public ItemRequestDto create(@RequestBody ItemRequestDto itemRequestDto,
+                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /requests - создание запроса: {}, пользователь: {}", itemRequestDto, userId);
+        return itemRequestService.create(itemRequestDto, userId);
+    }
+
+    @GetMapping
+    public List<ItemRequestWithAnswersDto> getOwn(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /requests - получение своих запросов, пользователь: {}", userId);
+        return itemRequestService.getOwn(userId);
+    }
+
+    @GetMapping("/all")
+    public List<ItemRequestWithAnswersDto> getAll(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(defaultValue = "0") Integer from,
+                                                  @RequestParam(defaultValue = "10") Integer size) {
+        log.info("GET /requests/all?from={}&size={} - получение чужих запросов, пользователь: {}", from, size, userId);
+        return itemRequestService.getAll(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public ItemRequestWithAnswersDto getById(@PathVariable Long requestId,
+                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /requests/{} - получение запроса, пользователь: {}", requestId, userId);
+        return itemRequestService.getById(requestId, userId);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.request;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+@UtilityClass
+public class ItemRequestMapper {
+    public ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
+        return new ItemRequestDto(
+                itemRequest.getId(),
+                itemRequest.getDescription(),
+                itemRequest.getRequestor().getId(),
+                itemRequest.getCreated()
+        );
+    }
+
+    public ItemRequestWithAnswersDto toItemRequestWithAnswersDto(ItemRequest itemRequest,
+                                                                 List<ItemAnswerDto> answers) {
+        return ItemRequestWithAnswersDto.builder()
+                .id(itemRequest.getId())
+                .description(itemRequest.getDescription())
+                .created(itemRequest.getCreated())
+                .items(answers)
+                .build();
+    }
+
+    public ItemAnswerDto toItemAnswerDto(Item item) {
+        return ItemAnswerDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .ownerId(item.getOwner().getId())
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto create(ItemRequestDto itemRequestDto, Long requestorId);
+
+    List<ItemRequestWithAnswersDto> getOwn(Long requestorId);
+
+    List<ItemRequestWithAnswersDto> getAll(Long userId, Integer from, Integer size);
+
+    ItemRequestWithAnswersDto getById(Long requestId, Long userId);
+}
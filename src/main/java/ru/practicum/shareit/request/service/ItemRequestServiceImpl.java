@@ -0,0 +1,103 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional
+    public ItemRequestDto create(ItemRequestDto itemRequestDto, Long requestorId) {
+        User requestor = userRepository.findById(requestorId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id=" + requestorId + " не найден."));
+
+        if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
+            throw new ValidationException("Описание запроса не может быть пустым.");
+        }
+
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setDescription(itemRequestDto.getDescription());
+        itemRequest.setRequestor(requestor);
+        itemRequest.setCreated(LocalDateTime.now());
+        return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+    }
+
+    @Override
+    public List<ItemRequestWithAnswersDto> getOwn(Long requestorId) {
+        checkUserExists(requestorId);
+        return withAnswers(itemRequestRepository.findByRequestorIdOrderByCreatedDescIdDesc(requestorId));
+    }
+
+    @Override
+    public List<ItemRequestWithAnswersDto> getAll(Long userId, Integer from, Integer size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры пагинации: from=" + from + ", size=" + size);
+        }
+        checkUserExists(userId);
+
+        ScrollPosition position = from > 0 ? ScrollPosition.offset(from - 1) : ScrollPosition.offset();
+        return withAnswers(itemRequestRepository
+                .findByRequestorIdNotOrderByCreatedDescIdDesc(userId, position, Limit.of(size))
+                .getContent());
+    }
+
+    @Override
+    public ItemRequestWithAnswersDto getById(Long requestId, Long userId) {
+        checkUserExists(userId);
+        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id=" + requestId + " не найден."));
+        return withAnswers(List.of(itemRequest)).get(0);
+    }
+
+    private List<ItemRequestWithAnswersDto> withAnswers(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId(),
+                        Collectors.mapping(ItemRequestMapper::toItemAnswerDto, Collectors.toList())));
+
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestWithAnswersDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private void checkUserExists(Long userId) {
+        if (userRepository.findById(userId).isEmpty()) {
+            throw new NotFoundException("Пользователь с id=" + userId + " не найден.");
+        }
+    }
+}
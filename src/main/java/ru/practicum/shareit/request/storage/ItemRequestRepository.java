@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    List<ItemRequest> findByRequestorIdOrderByCreatedDescIdDesc(Long requestorId);
+
+    Window<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(Long requestorId, ScrollPosition position,
+                                                                    Limit limit);
+}
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.bulk.BulkCodec;
+import ru.practicum.shareit.bulk.BulkFormat;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -13,7 +22,10 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
+    private static final List<String> EXPORT_COLUMNS = List.of("id", "name", "email");
+
     private final UserService userService;
+    private final BulkCodec bulkCodec;
 
     @GetMapping
     public List<UserDto> getAll() {
@@ -44,4 +56,31 @@ public class UserController {
         log.info("DELETE /users/{} - удаление пользователя", id);
         userService.delete(id);
     }
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public BulkImportResult importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                        InputStream body) {
+        log.info("POST /users/import - пакетный импорт пользователей, формат: {}", contentType);
+        return userService.importUsers(bulkCodec.read(body, BulkFormat.of(contentType), UserDto.class));
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        log.info("GET /users/export (ndjson) - выгрузка пользователей");
+        export(response, BulkFormat.NDJSON, MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    @GetMapping(path = "/export", produces = BulkFormat.CSV_VALUE)
+    public void exportUsersCsv(HttpServletResponse response) throws IOException {
+        log.info("GET /users/export (csv) - выгрузка пользователей");
+        export(response, BulkFormat.CSV, BulkFormat.CSV_VALUE);
+    }
+
+    private void export(HttpServletResponse response, BulkFormat format, String contentType) throws IOException {
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BulkCodec.BulkWriter<UserDto> writer = bulkCodec.write(response.getOutputStream(), format, EXPORT_COLUMNS);
+        userService.exportUsers(writer);
+        writer.flush();
+    }
 }
\ No newline at end of file
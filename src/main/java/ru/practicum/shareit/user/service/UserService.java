@@ -1,8 +1,12 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.bulk.BulkRecord;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     List<UserDto> getAll();
@@ -14,4 +18,8 @@ public interface UserService {
     UserDto update(Long id, UserDto userDto);
 
     void delete(Long id);
+
+    BulkImportResult importUsers(Iterator<BulkRecord<UserDto>> users);
+
+    void exportUsers(Consumer<UserDto> consumer);
 }
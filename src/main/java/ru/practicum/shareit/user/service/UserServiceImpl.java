@@ -1,22 +1,64 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingQueryCache;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.bulk.BulkImportReport;
+import ru.practicum.shareit.bulk.BulkRecord;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+import ru.practicum.shareit.config.ResponseTags;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.EmailFilter;
+import ru.practicum.shareit.user.storage.UserBulkRepository;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_TAKEN = "Пользователь с таким email уже существует.";
+
     private final UserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingQueryCache bookingQueryCache;
+    private final ResponseTags responseTags;
+    private final EmailFilter emailFilter;
+    private final UserBulkRepository userBulkRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingRepository bookingRepository;
+
+    @Value("${shareit.bulk.batch-size}")
+    private int importBatchSize;
+    @Value("${shareit.bulk.max-errors}")
+    private int maxImportErrors;
 
     @Override
     public List<UserDto> getAll() {
@@ -34,20 +76,15 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto create(UserDto userDto) {
-        if (userDto.getEmail() == null || userDto.getEmail().isBlank()) {
-            throw new ValidationException("Email не может быть пустым.");
-        }
-
-        if (!isValidEmail(userDto.getEmail())) {
-            throw new ValidationException("Некорректный формат email.");
-        }
+        validateEmail(userDto.getEmail());
 
-        if (userRepository.findByEmail(userDto.getEmail()).isPresent()) {
-            throw new ConflictException("Пользователь с таким email уже существует.");
+        if (emailFilter.mightContain(userDto.getEmail())
+                && userRepository.findByEmail(userDto.getEmail()).isPresent()) {
+            throw new ConflictException(EMAIL_TAKEN);
         }
 
         User user = UserMapper.toUser(userDto);
-        return UserMapper.toUserDto(userRepository.save(user));
+        return UserMapper.toUserDto(saveUnique(user));
     }
 
     @Override
@@ -60,12 +97,14 @@ public class UserServiceImpl implements UserService {
                 throw new ValidationException("Некорректный формат email.");
             }
 
-            userRepository.findByEmail(userDto.getEmail())
-                    .ifPresent(user -> {
-                        if (!user.getId().equals(id)) {
-                            throw new ConflictException("Пользователь с таким email уже существует.");
-                        }
-                    });
+            if (emailFilter.mightContain(userDto.getEmail())) {
+                userRepository.findByEmail(userDto.getEmail())
+                        .ifPresent(user -> {
+                            if (!user.getId().equals(id)) {
+                                throw new ConflictException(EMAIL_TAKEN);
+                            }
+                        });
+            }
             existingUser.setEmail(userDto.getEmail());
         }
 
@@ -73,15 +112,147 @@ public class UserServiceImpl implements UserService {
             existingUser.setName(userDto.getName());
         }
 
-        return UserMapper.toUserDto(userRepository.save(existingUser));
+        User savedUser = saveUnique(existingUser);
+        bookingQueryCache.invalidate(List.of(id), bookingRepository.findOwnerIdsByBookerId(id));
+        responseTags.usersChanged();
+        return UserMapper.toUserDto(savedUser);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         if (!userRepository.existsById(id)) {
             throw new NotFoundException("Пользователь с id=" + id + " не найден.");
         }
+        bookingIntervalIndex.releaseBooker(id);
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(id);
+        bookingIntervalIndex.removeItems(ownedItemIds);
+        List<Long> commentedItemIds = commentRepository.findItemIdsByAuthorId(id);
+        Set<Long> bookerIds = new HashSet<>(bookingRepository.findBookerIdsByOwnerId(id));
+        bookerIds.add(id);
+        Set<Long> ownerIds = new HashSet<>(bookingRepository.findOwnerIdsByBookerId(id));
+        ownerIds.add(id);
         userRepository.deleteById(id);
+        if (!commentedItemIds.isEmpty()) {
+            itemRepository.recountComments(commentedItemIds);
+        }
+        Set<Long> changedItemIds = new HashSet<>(ownedItemIds);
+        changedItemIds.addAll(commentedItemIds);
+        evictItemsAfterCommit(changedItemIds);
+        bookingQueryCache.invalidate(bookerIds, ownerIds);
+        responseTags.usersChanged();
+    }
+
+    @Override
+    public BulkImportResult importUsers(Iterator<BulkRecord<UserDto>> users) {
+        BulkImportReport report = new BulkImportReport(maxImportErrors);
+        List<BulkRecord<UserDto>> chunk = new ArrayList<>(importBatchSize);
+        while (users.hasNext()) {
+            chunk.add(users.next());
+            if (chunk.size() == importBatchSize) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        return report.toResult();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserDto> consumer) {
+        userBulkRepository.streamAll(consumer);
+    }
+
+    private void importChunk(List<BulkRecord<UserDto>> chunk, BulkImportReport report) {
+        List<BulkRecord<UserDto>> valid = new ArrayList<>(chunk.size());
+        Set<String> maybeTaken = new HashSet<>();
+        for (BulkRecord<UserDto> record : chunk) {
+            if (record.error() != null) {
+                report.failed(record.line(), record.error());
+                continue;
+            }
+            UserDto userDto = record.value();
+            try {
+                if (userDto.getName() == null || userDto.getName().isBlank()) {
+                    throw new ValidationException("Имя не может быть пустым.");
+                }
+                validateEmail(userDto.getEmail());
+            } catch (ValidationException e) {
+                report.failed(record.line(), e.getMessage());
+                continue;
+            }
+            valid.add(record);
+            if (emailFilter.mightContain(userDto.getEmail())) {
+                maybeTaken.add(userDto.getEmail());
+            }
+        }
+
+        Set<String> taken = maybeTaken.isEmpty() ? Set.of() : userBulkRepository.findExistingEmails(maybeTaken);
+        Set<String> seen = new HashSet<>();
+        List<BulkRecord<UserDto>> rows = new ArrayList<>(valid.size());
+        for (BulkRecord<UserDto> record : valid) {
+            String email = record.value().getEmail();
+            if (taken.contains(email) || !seen.add(email)) {
+                report.failed(record.line(), EMAIL_TAKEN);
+            } else {
+                rows.add(record);
+            }
+        }
+        insertRows(rows, report);
+    }
+
+    private void insertRows(List<BulkRecord<UserDto>> rows, BulkImportReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            userBulkRepository.insertAll(rows.stream().map(BulkRecord::value).toList());
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() > 1) {
+                rows.forEach(row -> insertRows(List.of(row), report));
+            } else {
+                report.failed(rows.get(0).line(), EMAIL_TAKEN);
+            }
+            return;
+        }
+        rows.forEach(row -> emailFilter.put(row.value().getEmail()));
+        report.imported(rows.size());
+    }
+
+    private void evictItemsAfterCommit(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = entityManagerFactory.getCache();
+                itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+            }
+        });
+    }
+
+    private User saveUnique(User user) {
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException(EMAIL_TAKEN);
+        }
+        emailFilter.put(savedUser.getEmail());
+        return savedUser;
+    }
+
+    private void validateEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new ValidationException("Email не может быть пустым.");
+        }
+        if (!isValidEmail(email)) {
+            throw new ValidationException("Некорректный формат email.");
+        }
     }
 
     private boolean isValidEmail(String email) {
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Slf4j
+@Component
+public class EmailFilter {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean warmed;
+
+    public EmailFilter(JdbcTemplate jdbcTemplate,
+                       @Value("${shareit.users.email-filter.expected-insertions}") long expectedInsertions,
+                       @Value("${shareit.users.email-filter.false-positive-rate}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        long optimalBits = (long) Math.ceil(
+                -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((optimalBits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) bits.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        AtomicInteger count = new AtomicInteger();
+        jdbcTemplate.query("SELECT email FROM users", rs -> {
+            put(rs.getString(1));
+            count.incrementAndGet();
+        });
+        warmed = true;
+        log.info("Фильтр email заполнен, адресов: {}", count.get());
+    }
+
+    public boolean mightContain(String email) {
+        if (!warmed) {
+            return true;
+        }
+        long hash = hash(email);
+        long step = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * step, bitCount);
+            if ((bits.get((int) (index / Long.SIZE)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String email) {
+        long hash = hash(email);
+        long step = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(hash + i * step, bitCount);
+            long mask = 1L << index;
+            bits.getAndAccumulate((int) (index / Long.SIZE), mask, (word, bit) -> word | bit);
+        }
+    }
+
+    private long hash(String email) {
+        long hash = FNV_OFFSET;
+        for (byte b : email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1;
+    }
+}
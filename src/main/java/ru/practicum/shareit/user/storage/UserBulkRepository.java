@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.SequenceIdAllocator;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class UserBulkRepository {
+    private static final String USERS_SEQUENCE = "users_seq";
+    private static final String INSERT_SQL = "INSERT INTO users (id, name, email) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+
+    public UserBulkRepository(JdbcTemplate jdbcTemplate,
+                              NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                              SequenceIdAllocator sequenceIdAllocator,
+                              @Value("${shareit.bulk.batch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.sequenceIdAllocator = sequenceIdAllocator;
+    }
+
+    @Transactional
+    public void insertAll(List<UserDto> users) {
+        Iterator<Long> ids = sequenceIdAllocator.next(USERS_SEQUENCE, users.size()).iterator();
+        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+            ps.setLong(1, ids.next());
+            ps.setString(2, user.getName());
+            ps.setString(3, user.getEmail());
+        });
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM users WHERE email IN (:emails)", Map.of("emails", emails), String.class));
+    }
+
+    public void streamAll(Consumer<UserDto> consumer) {
+        jdbcTemplate.query("SELECT id, name, email FROM users ORDER BY id", rs -> {
+            consumer.accept(new UserDto(rs.getLong(1), rs.getString(2), rs.getString(3)));
+        });
+    }
+}
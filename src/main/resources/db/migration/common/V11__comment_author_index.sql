@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS comments_author_idx ON comments (author_id);
@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
@@ -48,4 +42,4 @@ CREATE TABLE comments (
     created TIMESTAMP NOT NULL,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_end_idx ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS bookings_start_idx ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS bookings_end_idx ON bookings (end_date);
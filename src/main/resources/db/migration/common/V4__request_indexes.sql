@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
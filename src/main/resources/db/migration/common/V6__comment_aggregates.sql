@@ -0,0 +1,3 @@
+ALTER TABLE items ADD COLUMN comment_count INTEGER DEFAULT 0 NOT NULL;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id);
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
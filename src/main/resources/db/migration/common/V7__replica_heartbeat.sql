@@ -0,0 +1,5 @@
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INTEGER PRIMARY KEY,
+    beat TIMESTAMP NOT NULL
+);
+INSERT INTO replica_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP);
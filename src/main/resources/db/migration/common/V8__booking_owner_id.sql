@@ -0,0 +1,7 @@
+ALTER TABLE bookings ADD COLUMN owner_id BIGINT;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE bookings ADD CONSTRAINT bookings_owner_fk FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE;
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_owner_status_start_idx ON bookings (owner_id, status, start_date DESC, id DESC);
@@ -0,0 +1,15 @@
+ALTER TABLE bookings ADD COLUMN phase VARCHAR(20) DEFAULT 'FUTURE' NOT NULL;
+UPDATE bookings SET phase = CASE
+    WHEN end_date < CURRENT_TIMESTAMP THEN 'PAST'
+    WHEN start_date <= CURRENT_TIMESTAMP THEN 'CURRENT'
+    ELSE 'FUTURE'
+END;
+
+CREATE INDEX IF NOT EXISTS bookings_booker_phase_start_idx ON bookings (booker_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_owner_phase_start_idx ON bookings (owner_id, phase, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_phase_start_idx ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS bookings_phase_end_idx ON bookings (phase, end_date);
+CREATE INDEX IF NOT EXISTS bookings_status_start_idx ON bookings (status, start_date);
+
+DROP INDEX IF EXISTS bookings_start_idx;
+DROP INDEX IF EXISTS bookings_end_idx;
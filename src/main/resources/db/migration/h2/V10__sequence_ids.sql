@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM users) INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM requests) INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM items) INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings) INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM comments) INCREMENT BY 50;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
@@ -0,0 +1,23 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50 OWNED BY users.id;
+CREATE SEQUENCE IF NOT EXISTS requests_seq INCREMENT BY 50 OWNED BY requests.id;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50 OWNED BY items.id;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50 OWNED BY bookings.id;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50 OWNED BY comments.id;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('requests_seq', COALESCE((SELECT MAX(id) FROM requests), 0) + 1, false);
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1, false);
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings), 0) + 1, false);
+SELECT setval('comments_seq', COALESCE((SELECT MAX(id) FROM comments), 0) + 1, false);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
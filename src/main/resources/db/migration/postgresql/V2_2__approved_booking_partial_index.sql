@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS bookings_item_approved_end_idx ON bookings (item_id, end_date) WHERE status = 'APPROVED';
@@ -0,0 +1,118 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("etag-owner@mail.ru");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void unchangedItemIsAnsweredWithNotModifiedAfterOneQuery() throws Exception {
+        String etag = etagOf("/items/" + item.getId());
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get("/items/" + item.getId()).header(USER_HEADER, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        itemService.update(item.getId(), ItemDto.builder().name("renamed").build(), owner.getId());
+        mockMvc.perform(get("/items/" + item.getId()).header(USER_HEADER, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ownerItemListTagChangesWithItems() throws Exception {
+        String etag = etagOf("/items");
+
+        mockMvc.perform(get("/items").header(USER_HEADER, owner.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        itemService.create(ItemDto.builder().name("second").description("second").available(true).build(),
+                owner.getId());
+        assertNotEquals(etag, etagOf("/items"));
+    }
+
+    @Test
+    void unchangedBookingListIsAnsweredWithoutQueries() throws Exception {
+        String etag = etagOf("/bookings/owner");
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get("/bookings/owner").header(USER_HEADER, owner.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private String etagOf(String path) throws Exception {
+        return mockMvc.perform(get(path).header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.service.BookingEventBus;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.events.buffer-size=4")
+class BookingEventBusTest {
+    @LocalServerPort
+    private int port;
+    @Value("${shareit.events.buffer-size}")
+    private int bufferSize;
+    @Autowired
+    private BookingEventBus bookingEventBus;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void eventIsDeliveredAfterCommit() throws Exception {
+        Long userId = userRepository.save(newUser("events-subscriber")).getId();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings/events"))
+                .header("X-Sharer-User-Id", userId.toString())
+                .build();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpClient client = HttpClient.newHttpClient();
+        Stream<String> body = client.send(request, HttpResponse.BodyHandlers.ofLines()).body();
+        Thread reader = new Thread(() -> body.filter(line -> !line.isEmpty()).forEach(lines::add));
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            assertEquals(":heartbeat", lines.poll(5, TimeUnit.SECONDS));
+
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                bookingEventBus.publish("booking", Map.of("id", 1), List.of(userId));
+                try {
+                    assertNull(lines.poll(300, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertEquals("event:booking", lines.poll(5, TimeUnit.SECONDS));
+            assertEquals("data:{\"id\":1}", lines.poll(5, TimeUnit.SECONDS));
+        } finally {
+            body.close();
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutBlockingThePublisher() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+        CountDownLatch stalled = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            try {
+                stalled.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        BookingEventBus bus = new BookingEventBus(objectMapper, registry, bufferSize, Duration.ofMinutes(1),
+                dispatcher);
+        try {
+            SseEmitter emitter = bus.subscribe(1L);
+            assertEquals(1, registry.get("shareit.events.subscribers").gauge().value());
+
+            for (int i = 0; i < bufferSize; i++) {
+                bus.publish("booking", Map.of("id", i), List.of(1L));
+            }
+
+            assertEquals(1, registry.counter("shareit.events.dropped").count());
+            assertEquals(0, registry.get("shareit.events.subscribers").gauge().value());
+            emitter.send("published events do not complete the emitter");
+
+            stalled.countDown();
+            dispatcher.shutdown();
+            assertTrue(dispatcher.awaitTermination(5, TimeUnit.SECONDS));
+            assertThrows(IllegalStateException.class, () -> emitter.send("completed by the dispatcher"));
+        } finally {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingIntervalIndexTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long otherId;
+    private Long itemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = userService.create(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        bookerId = userService.create(new UserDto(null, "booker", "booker@mail.ru")).getId();
+        otherId = userService.create(new UserDto(null, "other", "other@mail.ru")).getId();
+        itemId = itemService.create(new ItemDto(null, "Дрель", "ударная", true, null), ownerId).getId();
+        start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void deletedBookerFreesReservedSlots() {
+        bookingService.create(new BookingRequestDto(start, start.plusHours(1), itemId), bookerId);
+        assertThrows(ConflictException.class,
+                () -> bookingService.create(new BookingRequestDto(start, start.plusHours(1), itemId), otherId));
+
+        userService.delete(bookerId);
+        BookingResponseDto booking = bookingService.create(
+                new BookingRequestDto(start, start.plusHours(1), itemId), otherId);
+
+        assertNotNull(booking.getId());
+    }
+
+    @Test
+    void deletedItemAndEmptySchedulesAreEvicted() {
+        BookingResponseDto booking = bookingService.create(
+                new BookingRequestDto(start, start.plusHours(1), itemId), bookerId);
+        assertTrue(schedules().containsKey(itemId));
+
+        bookingService.updateStatus(booking.getId(), false, ownerId);
+        assertFalse(schedules().containsKey(itemId));
+
+        bookingService.create(new BookingRequestDto(start, start.plusHours(1), itemId), bookerId);
+        itemService.delete(itemId);
+        assertFalse(schedules().containsKey(itemId));
+    }
+
+    @Test
+    void overlappingStoredBookingsAreMergedOnLoad() {
+        saveUnindexed(start, start.plusHours(4));
+        saveUnindexed(start.plusHours(1), start.plusHours(2));
+
+        assertFalse(bookingIntervalIndex.isFree(itemId, start.plusHours(3), start.plusHours(3).plusMinutes(30)));
+        assertEquals(start.plusHours(4), bookingIntervalIndex.nextFreeSlot(itemId, start.plusHours(3),
+                Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void bookingCommittedOutsideTheIndexIsRejected() {
+        assertTrue(bookingIntervalIndex.isFree(itemId, start, start.plusHours(1)));
+        saveUnindexed(start, start.plusHours(1));
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.create(new BookingRequestDto(start, start.plusHours(1), itemId), otherId));
+        assertFalse(bookingIntervalIndex.isFree(itemId, start, start.plusHours(1)));
+    }
+
+    private void saveUnindexed(LocalDateTime bookingStart, LocalDateTime bookingEnd) {
+        Booking booking = new Booking();
+        booking.setStart(bookingStart);
+        booking.setEnd(bookingEnd);
+        booking.setItem(itemRepository.getReferenceById(itemId));
+        booking.setBooker(userRepository.getReferenceById(bookerId));
+        booking.setOwnerId(ownerId);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> schedules() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(bookingIntervalIndex, "schedules");
+    }
+}
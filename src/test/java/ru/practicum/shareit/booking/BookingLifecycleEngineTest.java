@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingEventBus;
+import ru.practicum.shareit.booking.service.BookingLifecycleEngine;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingIntervalIndex;
+import ru.practicum.shareit.booking.storage.BookingQueryCache;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {
+        "shareit.booking.lifecycle.waiting-timeout=PT1S",
+        "shareit.booking.lifecycle.load-interval=PT1H"
+})
+class BookingLifecycleEngineTest {
+    private static final Duration DEADLINE = Duration.ofSeconds(10);
+
+    @Autowired
+    private BookingLifecycleEngine bookingLifecycleEngine;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Autowired
+    private BookingQueryCache bookingQueryCache;
+    @Autowired
+    private BookingEventBus bookingEventBus;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = userService.create(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        bookerId = userService.create(new UserDto(null, "booker", "booker@mail.ru")).getId();
+        itemId = itemService.create(new ItemDto(null, "Лестница", "складная", true, null), ownerId).getId();
+    }
+
+    @Test
+    void advanceMovesBookingFromFutureThroughCurrentToPast() {
+        LocalDateTime start = LocalDateTime.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        Long bookingId = bookingService.create(
+                new BookingRequestDto(start, start.plusSeconds(2), itemId), bookerId).getId();
+        bookingService.updateStatus(bookingId, true, ownerId);
+        assertEquals(BookingPhase.FUTURE, bookingRepository.findById(bookingId).orElseThrow().getPhase());
+
+        advanceUntil(bookingLifecycleEngine, bookingId, booking -> booking.getPhase() == BookingPhase.CURRENT);
+        advanceUntil(bookingLifecycleEngine, bookingId, booking -> booking.getPhase() == BookingPhase.PAST);
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void advanceCancelsStaleWaitingBookingAndReleasesItsInterval() {
+        LocalDateTime start = LocalDateTime.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusHours(1);
+        Long bookingId = bookingService.create(new BookingRequestDto(start, end, itemId), bookerId).getId();
+        assertFalse(bookingIntervalIndex.isFree(itemId, start, end));
+
+        advanceUntil(bookingLifecycleEngine, bookingId, booking -> booking.getStatus() == BookingStatus.CANCELED);
+
+        assertTrue(bookingIntervalIndex.isFree(itemId, start, end));
+    }
+
+    @Test
+    void loadSchedulesOverdueBookingsAfterRestart() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long endedId = saveUntracked(now.minusHours(2), now.minusHours(1), BookingStatus.WAITING);
+        Long startedId = saveUntracked(now.minusHours(1), now.plusHours(1), BookingStatus.APPROVED);
+
+        BookingLifecycleEngine restarted = new BookingLifecycleEngine(jdbcTemplate, transactionManager,
+                bookingRepository, bookingQueryCache, bookingIntervalIndex, bookingEventBus,
+                new SimpleMeterRegistry(), Duration.ofSeconds(1), Duration.ofMinutes(5), Duration.ofSeconds(1),
+                10000, 500);
+        restarted.load();
+
+        advanceUntil(restarted, endedId, booking -> booking.getPhase() == BookingPhase.PAST
+                && booking.getStatus() == BookingStatus.CANCELED);
+        advanceUntil(restarted, startedId, booking -> booking.getPhase() == BookingPhase.CURRENT);
+    }
+
+    private Long saveUntracked(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(itemRepository.getReferenceById(itemId));
+        booking.setBooker(userRepository.getReferenceById(bookerId));
+        booking.setOwnerId(ownerId);
+        booking.setStatus(status);
+        booking.setPhase(BookingPhase.FUTURE);
+        return bookingRepository.save(booking).getId();
+    }
+
+    private void advanceUntil(BookingLifecycleEngine engine, Long bookingId, Predicate<Booking> condition) {
+        LocalDateTime deadline = LocalDateTime.now().plus(DEADLINE);
+        while (LocalDateTime.now().isBefore(deadline)) {
+            engine.advance();
+            if (condition.test(bookingRepository.findById(bookingId).orElseThrow())) {
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+        fail("Бронирование " + bookingId + " не перешло в ожидаемое состояние");
+    }
+}
@@ -0,0 +1,220 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.ServletOutputStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookingQueryCountTest {
+    private static final int BOOKINGS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingController bookingController;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(newUser("owner"));
+        booker = userRepository.save(newUser("booker"));
+
+        List<Booking> bookings = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description" + i);
+            item.setAvailable(true);
+            item.setOwner(owner);
+            itemRepository.save(item);
+
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(owner.getId());
+            booking.setStatus(BookingStatus.WAITING);
+            bookings.add(booking);
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void bookerListIsLoadedWithoutPerRowSelects() {
+        Statistics statistics = statistics();
+
+        BookingPage page = bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, BOOKINGS, null);
+        page.getBookings().forEach(booking -> booking.getItem().getName());
+
+        assertEquals(BOOKINGS, page.getBookings().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ownerListIsLoadedWithoutPerRowSelects() {
+        Statistics statistics = statistics();
+
+        BookingPage page = bookingService.getBookingsByOwner(owner.getId(), "FUTURE", 0, BOOKINGS, null);
+
+        assertEquals(BOOKINGS, page.getBookings().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listWithoutSizeReturnsAllBookings() {
+        BookingPage page = bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, null, null);
+
+        assertEquals(BOOKINGS, page.getBookings().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void listWithoutSizeIsNotCached() {
+        bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, null, null);
+        Statistics statistics = statistics();
+
+        bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, null, null);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void itemUpdateRefreshesListsOfItsBookerAndOwner() {
+        bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, BOOKINGS, null);
+        bookingService.getBookingsByOwner(owner.getId(), "ALL", 0, BOOKINGS, null);
+        Long itemId = bookingRepository.findAll().get(0).getItem().getId();
+
+        itemService.update(itemId, new ItemDto(null, "renamed", null, null, null), owner.getId());
+
+        assertTrue(bookingService.getBookingsByBooker(booker.getId(), "ALL", 0, BOOKINGS, null).getBookings()
+                .stream().anyMatch(booking -> booking.getItem().getName().equals("renamed")));
+        assertTrue(bookingService.getBookingsByOwner(owner.getId(), "ALL", 0, BOOKINGS, null).getBookings()
+                .stream().anyMatch(booking -> booking.getItem().getName().equals("renamed")));
+    }
+
+    @Test
+    void streamIsWrittenOutsideTransactions() {
+        List<Boolean> transactional = new ArrayList<>();
+
+        bookingService.streamBookingsByBooker(booker.getId(), "ALL",
+                booking -> transactional.add(TransactionSynchronizationManager.isActualTransactionActive()));
+
+        assertEquals(BOOKINGS, transactional.size());
+        assertTrue(transactional.stream().noneMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    void streamStopsQuietlyWhenClientDisconnects() {
+        AtomicInteger writes = new AtomicInteger();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new DelegatingServletOutputStream(OutputStream.nullOutputStream()) {
+                    @Override
+                    public void write(byte[] bytes) throws IOException {
+                        writes.incrementAndGet();
+                        throw new IOException("Connection reset by peer");
+                    }
+                };
+            }
+        };
+
+        assertDoesNotThrow(() -> bookingController.streamBookingsByBooker(booker.getId(), "ALL", response));
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void repeatedListIsServedFromCacheUntilBookingChanges() {
+        bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, BOOKINGS, null);
+        Statistics statistics = statistics();
+
+        BookingPage cached = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, BOOKINGS, null);
+
+        assertEquals(BOOKINGS, cached.getBookings().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        bookingService.updateStatus(cached.getBookings().get(0).getId(), true, owner.getId());
+        BookingPage refreshed = bookingService.getBookingsByOwner(owner.getId(), "WAITING", 0, BOOKINGS, null);
+
+        assertEquals(BOOKINGS - 1, refreshed.getBookings().size());
+    }
+
+    @Test
+    void batchApprovalIsAppliedWithBatchedUpdates() {
+        List<BookingDecisionDto> decisions = bookingRepository.findAll().stream()
+                .map(booking -> new BookingDecisionDto(booking.getId(), true))
+                .toList();
+        Statistics statistics = statistics();
+
+        List<BookingBatchResult> results = bookingService.updateStatuses(decisions, owner.getId());
+
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 200));
+        assertEquals(BOOKINGS, statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        entityManagerFactory.getCache().evictAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.JacksonConfig;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingResponseDtoSerializerTest {
+    private final ObjectMapper reflective = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper registered = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addModule(new JacksonConfig().responseSerializersModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2026-01-02T03:04:00", "2026-12-31T23:59:59.5", "2026-10-18T17:16:31.644124",
+            "0999-05-06T07:08:09.000000001", "2026-10-18T17:16:31.123456789"})
+    void writesSameJsonAsReflectiveSerializer(String start) throws Exception {
+        BookingResponseDto booking = new BookingResponseDto(1L, LocalDateTime.parse(start),
+                LocalDateTime.parse(start).plusDays(1), BookingStatus.WAITING,
+                new BookerDto(2L, "booker", "booker@mail.ru"),
+                new ItemBookingDto(3L, "Дрель \"Bosch\"", null, true));
+
+        assertEquals(reflective.writeValueAsString(booking), registered.writeValueAsString(booking));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void writesNullsLikeReflectiveSerializer(boolean empty) throws Exception {
+        BookingResponseDto booking = empty ? new BookingResponseDto()
+                : new BookingResponseDto(1L, null, null, null, new BookerDto(), new ItemBookingDto());
+
+        assertEquals(reflective.writeValueAsString(booking), registered.writeValueAsString(booking));
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingStatusConcurrencyTest {
+    private static final int BOOKINGS = 10;
+    private static final int RACERS_PER_BOOKING = 8;
+    private static final Duration WINNER_HOLD = Duration.ofMillis(300);
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = userRepository.save(newUser("racer-owner"));
+        User booker = userRepository.save(newUser("racer-booker"));
+
+        Item item = new Item();
+        item.setName("item");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        bookingIds = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setOwnerId(owner.getId());
+            booking.setStatus(BookingStatus.WAITING);
+            bookingIds.add(bookingRepository.save(booking).getId());
+        }
+    }
+
+    @Test
+    void exactlyOneConcurrentTransitionWins() throws Exception {
+        Map<Long, List<BookingStatus>> winners = new ConcurrentHashMap<>();
+        AtomicInteger losers = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKINGS * RACERS_PER_BOOKING / 2);
+        try {
+            for (Long bookingId : bookingIds) {
+                for (int i = 0; i < RACERS_PER_BOOKING; i++) {
+                    boolean approved = i % 2 == 0;
+                    futures.add(executor.submit(() -> {
+                        startSignal.await();
+                        try {
+                            BookingResponseDto result = bookingService.updateStatus(bookingId, approved, owner.getId());
+                            winners.computeIfAbsent(bookingId, id -> new CopyOnWriteArrayList<>())
+                                    .add(result.getStatus());
+                        } catch (ValidationException e) {
+                            losers.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+            }
+            startSignal.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(BOOKINGS, winners.size());
+        assertEquals(BOOKINGS * (RACERS_PER_BOOKING - 1), losers.get());
+        for (Long bookingId : bookingIds) {
+            List<BookingStatus> statuses = winners.get(bookingId);
+            assertEquals(1, statuses.size());
+            Booking stored = bookingRepository.findById(bookingId).orElseThrow();
+            assertEquals(statuses.get(0), stored.getStatus());
+            assertEquals(1L, stored.getVersion());
+        }
+    }
+
+    @Test
+    void loserWaitsForRowLockUntilWinnerCommits() throws Exception {
+        Long bookingId = bookingIds.get(0);
+        CountDownLatch updated = new CountDownLatch(1);
+        AtomicLong holdEndedAt = new AtomicLong();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> winner = executor.submit(() -> {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    bookingService.updateStatus(bookingId, true, owner.getId());
+                    updated.countDown();
+                    try {
+                        Thread.sleep(WINNER_HOLD.toMillis());
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    holdEndedAt.set(System.nanoTime());
+                });
+                return null;
+            });
+            assertTrue(updated.await(10, TimeUnit.SECONDS));
+
+            long startedAt = System.nanoTime();
+            assertThrows(ValidationException.class,
+                    () -> bookingService.updateStatus(bookingId, false, owner.getId()));
+            long finishedAt = System.nanoTime();
+            winner.get(10, TimeUnit.SECONDS);
+
+            assertTrue(finishedAt >= holdEndedAt.get());
+            assertTrue(Duration.ofNanos(finishedAt - startedAt).compareTo(WINNER_HOLD.dividedBy(2)) >= 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+}
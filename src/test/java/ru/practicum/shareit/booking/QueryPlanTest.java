@@ -0,0 +1,261 @@
+package ru.practicum.shareit.booking;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingLifecycleEngine;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.booking.QueryPlanTest$Recorder")
+class QueryPlanTest {
+    private static final Set<String> INDEXED_TABLES = Set.of("BOOKINGS", "ITEMS", "COMMENTS");
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            BookingRepository.class, ItemRepository.class, CommentRepository.class);
+    private static final Set<String> POSTGRES_ONLY = Set.of("searchRanked");
+    private static final Set<Method> INVOKED = ConcurrentHashMap.newKeySet();
+    private static final ScrollPosition FIRST = ScrollPosition.keyset();
+    private static final Limit LIMIT = Limit.of(10);
+    private static final int ROWS = 1000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        seed();
+        Recorder.STATEMENTS.clear();
+    }
+
+    @AfterAll
+    static void everyRepositoryQueryIsChecked() {
+        List<String> unchecked = REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .filter(method -> !POSTGRES_ONLY.contains(method.getName()))
+                .filter(method -> !INVOKED.contains(method))
+                .map(method -> method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .toList();
+        assertEquals(List.of(), unchecked, "Repository queries without a plan check");
+    }
+
+    @Test
+    void bookerQueriesUseIndexes() {
+        bookingRepository.findByBookerIdOrderByStartDescIdDesc(1L, FIRST, LIMIT);
+        bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.CURRENT, FIRST, LIMIT);
+        bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.PAST, FIRST, LIMIT);
+        bookingRepository.findByBookerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.FUTURE, FIRST, LIMIT);
+        bookingRepository.findByBookerIdAndStatusOrderByStartDescIdDesc(1L, BookingStatus.WAITING, FIRST, LIMIT);
+        bookingRepository.findByBookerIdAndStatusInAndEndAfter(1L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now());
+        bookingRepository.findOwnerIdsByBookerId(1L);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void ownerQueriesUseIndexes() {
+        bookingRepository.findByOwnerIdOrderByStartDescIdDesc(1L, FIRST, LIMIT);
+        bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.CURRENT, FIRST, LIMIT);
+        bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.PAST, FIRST, LIMIT);
+        bookingRepository.findByOwnerIdAndPhaseOrderByStartDescIdDesc(1L, BookingPhase.FUTURE, FIRST, LIMIT);
+        bookingRepository.findByOwnerIdAndStatusOrderByStartDescIdDesc(1L, BookingStatus.WAITING, FIRST, LIMIT);
+        itemRepository.findOwnerVersionTag(1L, LocalDateTime.now());
+        bookingRepository.findBookerIdsByOwnerId(1L);
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void bookingLookupsAndUpdatesUseIndexes() {
+        List<Long> bookingIds = List.of(1L, 2L);
+
+        bookingRepository.findById(1L);
+        bookingRepository.findByIdIn(bookingIds);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookingRepository.updateStatusIfWaiting(1L, BookingStatus.APPROVED);
+            status.setRollbackOnly();
+        });
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = List.of(1L, 2L);
+
+        itemRepository.findByOwnerId(1L);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemRepository.findLockedById(1L);
+            itemRepository.findLockedByIdInOrderById(itemIds);
+        });
+        itemRepository.findIdsByOwnerId(1L);
+        itemRepository.findByRequestIdIn(itemIds);
+        itemRepository.findVersionTag(1L, 1L, now);
+        bookingRepository.findNextBookings(itemIds, now);
+        bookingRepository.findLastBookings(itemIds, now);
+        bookingRepository.findByItemIdAndStatusInAndEndAfter(1L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        bookingRepository.findBookerIdsByItemId(1L);
+        bookingRepository.findBookerIdsByItemIdAndStatusInAndEndAfter(1L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now.plusHours(1), now);
+        bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(1L, 1L,
+                BookingStatus.APPROVED, now);
+        itemRepository.findCommentCounts(itemIds);
+        commentRepository.findLatestByItemIdIn(itemIds, 10);
+        commentRepository.findByItemIdOrderByCreatedDescIdDesc(1L, FIRST, LIMIT);
+        commentRepository.findItemIdsByAuthorId(1L);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemRepository.recountComments(itemIds);
+            status.setRollbackOnly();
+        });
+
+        assertNoTableScans();
+    }
+
+    @Test
+    void lifecycleQueriesUseIndexes() {
+        for (String constant : List.of("STARTING_SQL", "ENDING_SQL", "EXPIRING_SQL")) {
+            Recorder.STATEMENTS.add((String) ReflectionTestUtils.getField(BookingLifecycleEngine.class, constant));
+        }
+
+        assertNoTableScans();
+    }
+
+    private void seed() {
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM items");
+        jdbcTemplate.update("DELETE FROM users");
+
+        Long userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM FINAL TABLE (INSERT INTO users (name, email) VALUES ('user', 'user@mail.ru'))",
+                Long.class);
+        jdbcTemplate.batchUpdate("INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, ?)",
+                IntStream.range(0, ROWS).boxed().toList(), ROWS, (ps, i) -> {
+                    ps.setString(1, "item " + i);
+                    ps.setString(2, "description " + i);
+                    ps.setBoolean(3, true);
+                    ps.setLong(4, userId);
+                });
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items ORDER BY id", Long.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(ROWS / 2);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings " +
+                        "(start_date, end_date, item_id, booker_id, owner_id, status, phase) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, ROWS).boxed().toList(), ROWS, (ps, i) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(start.plusDays(i)));
+                    ps.setTimestamp(2, Timestamp.valueOf(start.plusDays(i).plusHours(1)));
+                    ps.setLong(3, itemIds.get(i));
+                    ps.setLong(4, userId);
+                    ps.setLong(5, userId);
+                    ps.setString(6, BookingStatus.APPROVED.name());
+                    ps.setString(7, BookingPhase.at(start.plusDays(i), start.plusDays(i).plusHours(1),
+                            LocalDateTime.now()).name());
+                });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void assertNoTableScans() {
+        for (String sql : Recorder.STATEMENTS) {
+            String plan = explain(sql);
+            for (String table : INDEXED_TABLES) {
+                assertFalse(plan.contains("PUBLIC." + table + ".tableScan"),
+                        () -> "Sequential scan on " + table + ":\n" + plan);
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class InvocationRecorderConfig {
+        @Bean
+        static BeanPostProcessor repositoryInvocationRecorder() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                        factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                                (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                        (MethodInterceptor) invocation -> {
+                                            INVOKED.add(invocation.getMethod());
+                                            return invocation.proceed();
+                                        })));
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    public static class Recorder implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.config.JacksonConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkCodecTest {
+    private static final int ROWS = 1_000_000;
+    private static final long HEAP_SLACK = 32L * 1024 * 1024;
+    private static final List<String> ITEM_COLUMNS = List.of("id", "name", "description", "available", "requestId");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JacksonConfig().responseSerializersModule())
+            .build();
+    private final BulkCodec codec = new BulkCodec(objectMapper);
+
+    @Test
+    void readsMillionNdjsonRowsInConstantHeap() {
+        InputStream body = lines(ROWS, i -> "{\"name\":\"user" + i + "\",\"email\":\"user" + i + "@mail.ru\"}");
+        Iterator<BulkRecord<UserDto>> records = codec.read(body, BulkFormat.NDJSON, UserDto.class);
+
+        long baseline = 0;
+        long count = 0;
+        while (records.hasNext()) {
+            BulkRecord<UserDto> record = records.next();
+            assertNull(record.error());
+            if (++count == ROWS / 10) {
+                baseline = usedHeap();
+            }
+        }
+
+        assertEquals(ROWS, count);
+        assertTrue(usedHeap() - baseline < HEAP_SLACK, "Heap grew while reading");
+    }
+
+    @Test
+    void readsMillionCsvRowsInConstantHeap() {
+        InputStream body = lines(ROWS + 1, i -> i == 0
+                ? "name,description,available"
+                : "\"item, " + i + "\",\"line one\nline \"\"two\"\"\",true");
+        Iterator<BulkRecord<ItemDto>> records = codec.read(body, BulkFormat.CSV, ItemDto.class);
+
+        long baseline = 0;
+        long count = 0;
+        while (records.hasNext()) {
+            BulkRecord<ItemDto> record = records.next();
+            assertNull(record.error());
+            if (++count == ROWS / 10) {
+                baseline = usedHeap();
+            }
+        }
+
+        assertEquals(ROWS, count);
+        assertTrue(usedHeap() - baseline < HEAP_SLACK, "Heap grew while reading");
+    }
+
+    @Test
+    void writesMillionCsvRowsInConstantHeap() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        BulkCodec.BulkWriter<ItemDto> writer = codec.write(out, BulkFormat.CSV, ITEM_COLUMNS);
+
+        long baseline = 0;
+        for (int i = 0; i < ROWS; i++) {
+            writer.accept(new ItemDto((long) i, "item " + i, "description, " + i, true, null));
+            if (i == ROWS / 10) {
+                baseline = usedHeap();
+            }
+        }
+        writer.flush();
+
+        assertEquals(ROWS + 1, out.lines);
+        assertTrue(usedHeap() - baseline < HEAP_SLACK, "Heap grew while writing");
+    }
+
+    @Test
+    void csvRoundTripKeepsQuotesCommasAndLineBreaks() throws Exception {
+        ItemDto item = new ItemDto(1L, "Дрель \"Bosch\", ударная", "первая строка\r\nвторая", false, 7L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BulkCodec.BulkWriter<ItemDto> writer = codec.write(out, BulkFormat.CSV, ITEM_COLUMNS);
+        writer.accept(item);
+        writer.accept(new ItemDto(2L, "Пила", "ручная", true, null));
+        writer.flush();
+
+        List<BulkRecord<ItemDto>> records = new ArrayList<>();
+        codec.read(new ByteArrayInputStream(out.toByteArray()), BulkFormat.CSV, ItemDto.class)
+                .forEachRemaining(records::add);
+
+        assertEquals(2, records.size());
+        assertEquals(item, records.get(0).value());
+        assertNull(records.get(1).value().getRequestId());
+        assertEquals(4, records.get(1).line());
+    }
+
+    @Test
+    void reportsMalformedRowsWithoutStopping() {
+        String body = "{\"name\":\"first\",\"email\":\"first@mail.ru\"}\n{broken\n\n" +
+                "{\"name\":\"second\",\"email\":\"second@mail.ru\"}\n";
+        List<BulkRecord<UserDto>> records = new ArrayList<>();
+        codec.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON, UserDto.class)
+                .forEachRemaining(records::add);
+
+        assertEquals(3, records.size());
+        assertNotNull(records.get(1).error());
+        assertEquals(2, records.get(1).line());
+        assertEquals("second", records.get(2).value().getName());
+        assertEquals(4, records.get(2).line());
+    }
+
+    private static InputStream lines(int count, IntFunction<String> line) {
+        return new InputStream() {
+            private int next;
+            private byte[] current = new byte[0];
+            private int position;
+
+            @Override
+            public int read() {
+                while (position == current.length) {
+                    if (next == count) {
+                        return -1;
+                    }
+                    current = (line.apply(next++) + "\n").getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return current[position++] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                int read = 0;
+                while (read < length) {
+                    int b = read();
+                    if (b == -1) {
+                        return read == 0 ? -1 : read;
+                    }
+                    buffer[offset + read++] = (byte) b;
+                }
+                return read;
+            }
+        };
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+    }
+}
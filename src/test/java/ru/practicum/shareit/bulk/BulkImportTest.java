@@ -0,0 +1,108 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.bulk.dto.BulkImportError;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+import ru.practicum.shareit.config.SequenceIdAllocator;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BulkImportTest {
+    @Autowired
+    private BulkCodec bulkCodec;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importsUsersAndRejectsTakenEmails() {
+        userService.create(new UserDto(null, "existing", "existing@mail.ru"));
+        String body = String.join("\n",
+                "{\"name\":\"first\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"duplicate\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"taken\",\"email\":\"existing@mail.ru\"}",
+                "{\"name\":\"invalid\",\"email\":\"invalid\"}",
+                "{\"name\":\"second\",\"email\":\"second@mail.ru\"}");
+
+        BulkImportResult result = userService.importUsers(
+                bulkCodec.read(stream(body), BulkFormat.NDJSON, UserDto.class));
+
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L), result.getErrors().stream().map(BulkImportError::getLine).sorted().toList());
+        assertEquals(3, userRepository.count());
+    }
+
+    @Test
+    void importsAndExportsOwnerItemsAsCsv() {
+        Long ownerId = userService.create(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        String body = """
+                name,description,available
+                Дрель,"ударная, с кейсом",true
+                ,без названия,true
+                Пила,ручная,false
+                """;
+
+        BulkImportResult result = itemService.importItems(
+                bulkCodec.read(stream(body), BulkFormat.CSV, ItemDto.class), ownerId);
+        List<ItemDto> exported = new ArrayList<>();
+        itemService.exportItems(ownerId, exported::add);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(3L, result.getErrors().get(0).getLine());
+        assertEquals(List.of("Дрель", "Пила"), exported.stream().map(ItemDto::getName).toList());
+        assertEquals("ударная, с кейсом", exported.get(0).getDescription());
+        assertEquals(List.of("Дрель"), itemService.search("дрель", 0, 10).stream().map(ItemDto::getName).toList());
+    }
+
+    @Test
+    void importedUsersShareOneSequenceBlock() {
+        Long before = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+        String body = String.join("\n",
+                "{\"name\":\"first\",\"email\":\"first@mail.ru\"}",
+                "{\"name\":\"second\",\"email\":\"second@mail.ru\"}",
+                "{\"name\":\"third\",\"email\":\"third@mail.ru\"}");
+
+        BulkImportResult result = userService.importUsers(
+                bulkCodec.read(stream(body), BulkFormat.NDJSON, UserDto.class));
+        Long after = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+
+        assertEquals(3, result.getImported());
+        assertTrue(after - before <= 2L * SequenceIdAllocator.ALLOCATION_SIZE);
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.url=jdbc:h2:mem:shareit;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "shareit.datasource.replica.lag-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    private HikariDataSource replicaDataSource;
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            assertEquals(1, replicaDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+            assertEquals(0, replicaDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(1, primaryDataSource.getHikariPoolMXBean().getActiveConnections());
+        });
+    }
+
+    @Test
+    void writerReadsFromPrimaryUntilTheWindowPasses() throws Exception {
+        replicaLagMonitor.check();
+        Long writerId = userService.create(new UserDto(null, "writer", "writer@mail.ru")).getId();
+        Long readerId = userService.create(new UserDto(null, "reader", "reader@mail.ru")).getId();
+
+        double before = replicaRoutes();
+        mockMvc.perform(get("/items").header(USER_HEADER, writerId)).andExpect(status().isOk());
+        assertTrue(replicaRoutes() > before);
+
+        mockMvc.perform(post("/items").header(USER_HEADER, writerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Отвёртка\",\"description\":\"крестовая\",\"available\":true}"))
+                .andExpect(status().isOk());
+
+        before = replicaRoutes();
+        mockMvc.perform(get("/items").header(USER_HEADER, writerId)).andExpect(status().isOk());
+        assertEquals(before, replicaRoutes());
+
+        mockMvc.perform(get("/items").header(USER_HEADER, readerId)).andExpect(status().isOk());
+        assertTrue(replicaRoutes() > before);
+    }
+
+    @Test
+    void bookingListsFillTheCacheFromPrimary() throws Exception {
+        replicaLagMonitor.check();
+        Long userId = userService.create(new UserDto(null, "lister", "lister@mail.ru")).getId();
+
+        double before = replicaRoutes();
+        mockMvc.perform(get("/bookings").header(USER_HEADER, userId)).andExpect(status().isOk());
+        mockMvc.perform(get("/bookings/owner").header(USER_HEADER, userId)).andExpect(status().isOk());
+
+        assertEquals(before, replicaRoutes());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        DriverManagerDataSource staleReplica = new DriverManagerDataSource(
+                "jdbc:h2:mem:stale-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate replica = new JdbcTemplate(staleReplica);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INTEGER PRIMARY KEY, beat TIMESTAMP)");
+        replica.update("MERGE INTO replica_heartbeat KEY (id) VALUES (1, ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, staleReplica, Duration.ofSeconds(5),
+                new SimpleMeterRegistry());
+
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+
+        replica.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", Timestamp.valueOf(LocalDateTime.now()));
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+    }
+
+    private double replicaRoutes() {
+        return meterRegistry.get("shareit.datasource.routes").tag("route", ReplicaRoutingDataSource.REPLICA)
+                .counter().count();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestQueriesDataSourceTest {
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new RequestQueriesDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:request-queries;DB_CLOSE_DELAY=-1", "sa", "")));
+
+    @AfterEach
+    void tearDown() {
+        RequestQueries.close();
+    }
+
+    @Test
+    void countsStatementsAndBatchesExecutedThroughJdbc() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS samples (id BIGINT)");
+        RequestQueries queries = RequestQueries.open();
+
+        jdbcTemplate.batchUpdate("INSERT INTO samples (id) VALUES (?)", List.of(1, 2, 3), 10,
+                (ps, id) -> ps.setLong(1, id));
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM samples WHERE id > ?", Long.class, 0);
+        jdbcTemplate.update("DELETE FROM samples");
+
+        assertEquals(3, queries.getStatementCount());
+        assertEquals(List.of("INSERT INTO samples (id) VALUES (?)", "SELECT COUNT(*) FROM samples WHERE id > ?",
+                "DELETE FROM samples"), queries.getStatements());
+        assertTrue(queries.getJdbcNanos() > 0);
+    }
+
+    @Test
+    void ignoresStatementsOutsideRequests() {
+        RequestQueries queries = RequestQueries.open();
+        RequestQueries.close();
+
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertEquals(0, queries.getStatementCount());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CommentCountTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long ownerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        ownerId = userService.create(new UserDto(null, "owner", "owner@mail.ru")).getId();
+        itemId = itemService.create(new ItemDto(null, "Дрель", "ударная", true, null), ownerId).getId();
+    }
+
+    @Test
+    void deletingAuthorRecountsCommentsOfTheirItems() {
+        comment("kept");
+        Long deletedAuthorId = comment("deleted");
+        assertEquals(2, itemService.getById(itemId, ownerId).getCommentCount());
+        userService.getById(ownerId);
+
+        userService.delete(deletedAuthorId);
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, ownerId));
+        assertEquals(1, itemService.getById(itemId, ownerId).getCommentCount());
+        assertEquals(1, itemService.getComments(itemId, 0, 10).size());
+    }
+
+    private Long comment(String name) {
+        Long authorId = userService.create(new UserDto(null, name, name + "@mail.ru")).getId();
+        Booking booking = new Booking();
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setItem(itemRepository.getReferenceById(itemId));
+        booking.setBooker(userRepository.getReferenceById(authorId));
+        booking.setOwnerId(ownerId);
+        booking.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(booking);
+        itemService.addComment(itemId, CommentDto.builder().text("комментарий " + name).build(), authorId);
+        return authorId;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.CommentWriteBehind;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class CommentWriteBehindTest {
+    @Autowired
+    private CommentWriteBehind commentWriteBehind;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void commentOnDeletedItemIsNotFound() {
+        Long ownerId = userService.create(new UserDto(null, "writer-owner", "writer-owner@mail.ru")).getId();
+        Long itemId = itemService.create(new ItemDto(null, "Пила", "ручная", true, null), ownerId).getId();
+        itemService.delete(itemId);
+
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> commentWriteBehind.write("комментарий", itemId, ownerId, LocalDateTime.now()));
+
+        assertEquals("Вещь с id=" + itemId + " не найдена.", e.getMessage());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class InMemoryItemSearchIndexTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryItemSearchIndex index;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner@mail.ru");
+        owner = userRepository.save(owner);
+        index = new InMemoryItemSearchIndex(itemRepository);
+    }
+
+    @Test
+    void nameMatchesRankBeforeDescriptionMatches() {
+        Long inDescription = save("Шуруповерт", "заменяет дрель", true).getId();
+        Long laterInName = save("Аккумуляторная дрель", "компактная", true).getId();
+        Long atNameStart = save("Дрель ударная", "с кейсом", true).getId();
+        save("Пила", "ручная", true);
+
+        assertEquals(List.of(atNameStart, laterInName, inDescription), index.search("ДРЕЛЬ", 0, 10));
+        assertEquals(List.of(laterInName), index.search("дрель", 1, 1));
+    }
+
+    @Test
+    void shortQueryScansAllDocuments() {
+        Long saw = save("Пила", "стальная", true).getId();
+        Long drill = save("Дрель", "ударная", true).getId();
+        Long remote = save("Пульт", "универсальный", true).getId();
+        save("Лестница", "складная", true);
+
+        assertEquals(List.of(remote, drill, saw), index.search("ЛЬ", 0, 10));
+        assertEquals(List.of(), index.search("ъ", 0, 10));
+    }
+
+    @Test
+    void updatesAndRemovalsAreAppliedAfterCommit() {
+        Item drill = save("Дрель", "ударная", true);
+        Long sawId = save("Пила", "ручная", true).getId();
+        assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+
+        inTransaction(() -> {
+            drill.setName("Перфоратор");
+            index.index(drill);
+            index.remove(sawId);
+
+            assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+            assertEquals(List.of(), index.search("перфоратор", 0, 10));
+            assertEquals(List.of(sawId), index.search("пила", 0, 10));
+        });
+
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+        assertEquals(List.of(drill.getId()), index.search("перфоратор", 0, 10));
+        assertEquals(List.of(), index.search("пила", 0, 10));
+    }
+
+    @Test
+    void rollbackLeavesIndexUnchanged() {
+        Item drill = save("Дрель", "ударная", true);
+        assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            drill.setName("Перфоратор");
+            index.index(drill);
+            index.remove(drill.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+        assertEquals(List.of(), index.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void unavailableItemsAreDroppedFromResults() {
+        Item drill = save("Дрель", "ударная", true);
+        save("Дрель", "сломана", false);
+        assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+
+        drill.setAvailable(false);
+        index.index(drill);
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+        assertEquals(List.of(), index.search("др", 0, 10));
+
+        drill.setAvailable(true);
+        index.index(drill);
+        assertEquals(List.of(drill.getId()), index.search("дрель", 0, 10));
+    }
+
+    private Item save(String name, String description, boolean available) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(owner);
+        return itemRepository.save(item);
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.EmailFilter;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EmailFilterTest {
+    private static final int USERS = 1000;
+    private static final String EMAIL_TAKEN = "Пользователь с таким email уже существует.";
+
+    @Autowired
+    private EmailFilter emailFilter;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void everyEmailMightBePresentBeforeWarmUp() {
+        EmailFilter filter = new EmailFilter(jdbcTemplate, USERS, 0.01);
+
+        assertTrue(filter.mightContain("unknown@mail.ru"));
+    }
+
+    @Test
+    void warmedFilterHasNoFalseNegatives() {
+        List<String> stored = emails("stored", USERS);
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES ('user', ?)", stored, stored.size(),
+                (ps, email) -> ps.setString(1, email));
+        EmailFilter filter = new EmailFilter(jdbcTemplate, USERS, 0.01);
+
+        filter.warm();
+
+        assertTrue(stored.stream().allMatch(filter::mightContain));
+        long falsePositives = emails("absent", USERS).stream().filter(filter::mightContain).count();
+        assertTrue(falsePositives < USERS * 0.05, "Ложных срабатываний: " + falsePositives);
+    }
+
+    @Test
+    void emailsAreTrimmedAndLowercased() {
+        EmailFilter filter = new EmailFilter(jdbcTemplate, USERS, 0.01);
+        filter.warm();
+
+        filter.put("  Mixed.Case@Mail.RU ");
+
+        assertTrue(filter.mightContain("mixed.case@mail.ru"));
+        assertTrue(filter.mightContain("MIXED.CASE@MAIL.RU"));
+        assertFalse(filter.mightContain("other.case@mail.ru"));
+    }
+
+    @Test
+    void uniqueConstraintReportsConflictWhenFilterMissesEmail() {
+        String email = "unfiltered@mail.ru";
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('unfiltered', ?)", email);
+        assertFalse(emailFilter.mightContain(email));
+
+        ConflictException created = assertThrows(ConflictException.class,
+                () -> userService.create(new UserDto(null, "created", email)));
+        Long userId = userService.create(new UserDto(null, "updated", "updated@mail.ru")).getId();
+        ConflictException updated = assertThrows(ConflictException.class,
+                () -> userService.update(userId, new UserDto(null, null, email)));
+
+        assertEquals(EMAIL_TAKEN, created.getMessage());
+        assertEquals(EMAIL_TAKEN, updated.getMessage());
+        assertEquals("updated@mail.ru", userService.getById(userId).getEmail());
+    }
+
+    private static List<String> emails(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> prefix + i + "@mail.ru")
+                .toList();
+    }
+}